@@ -0,0 +1,56 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.GitMinerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Arranca la aplicación sin servidor web y con una base de datos en memoria propia para cada benchmark
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(GitMinerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    // Perfil prod (H2 en fichero y Flyway) con los datos en el directorio indicado
+    // El directorio va como argumento: las propiedades por defecto no prevalecen sobre el ./data de application-prod.properties
+    static ConfigurableApplicationContext startPersistent(Path dataDir) {
+        return new SpringApplicationBuilder(GitMinerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run("--gitminer.data-dir=" + dataDir);
+    }
+
+    // Igual, pero con Tomcat en un puerto libre (local.server.port) para las pruebas de carga HTTP
+    static ConfigurableApplicationContext startWeb(String database, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "server.port=0"));
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(GitMinerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+}
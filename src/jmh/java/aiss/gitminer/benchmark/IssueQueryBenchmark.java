@@ -0,0 +1,109 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import aiss.gitminer.repository.CommentRepository;
+import aiss.gitminer.repository.IssueRepository;
+import aiss.gitminer.repository.ProjectRepository;
+import aiss.gitminer.repository.Specifications;
+import aiss.gitminer.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+// Consultas de lectura sobre un conjunto fijo de 20 proyectos (10.000 issues, 50.000 comentarios)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IssueQueryBenchmark {
+
+    private static final int PROJECTS = 20;
+    private static final int ISSUES_PER_PROJECT = 500;
+
+    private ConfigurableApplicationContext context;
+    private IssueRepository issueRepository;
+    private CommentRepository commentRepository;
+
+    private final Pageable firstPage = PageRequest.of(0, 10);
+    private final Pageable deepPage = PageRequest.of(500, 10, Sort.by("id"));
+    private String authorId;
+    private String issueId;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        context = BenchmarkContext.start("queries");
+        issueRepository = context.getBean(IssueRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        SyntheticDataset dataset = new SyntheticDataset(7);
+        UserService userService = context.getBean(UserService.class);
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = dataset.project("p" + i, 100, ISSUES_PER_PROJECT, 5);
+            userService.internUsers(project);
+            projectRepository.save(project);
+        }
+        issueId = "p10-i250";
+        authorId = "u42";
+        // Con ids ordenados, "p18" cae aproximadamente en la misma posición que la página 500 (OFFSET 5000)
+        cursor = "p18";
+    }
+
+    @Benchmark
+    public Object findByState() {
+        return issueRepository.findByState("opened", firstPage).getContent();
+    }
+
+    @Benchmark
+    public Object findByStateAndAuthorId() {
+        return issueRepository.findByStateAndAuthorId("opened", authorId, firstPage).getContent();
+    }
+
+    // Consulta dinámica que usa IssueController#findAll
+    @Benchmark
+    public Object findSliceByStateAndLabel() {
+        Specification<Issue> spec = Specification.<Issue>where(Specifications.equal("state", "opened"))
+                .and(Specifications.member("labels", "bug"));
+        return issueRepository.findSlice(spec, firstPage).getContent();
+    }
+
+    // Página profunda con OFFSET frente a la misma posición con cursor
+    @Benchmark
+    public Object deepPageOffset() {
+        return issueRepository.findSlice(null, deepPage).getContent();
+    }
+
+    @Benchmark
+    public Object deepPageKeyset() {
+        return issueRepository.findSlice(Specifications.idAfter(cursor), PageRequest.of(0, 10, Sort.by("id"))).getContent();
+    }
+
+    @Benchmark
+    public Object findCommentsByIssueId() {
+        return commentRepository.findCommentsByIssueId(issueId, firstPage).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,75 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.model.Project;
+import aiss.gitminer.service.ProjectIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+// Escritura de un proyecto completo: alta con el grafo ya deserializado (POST) frente a la ingesta en streaming
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProjectIngestBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int commits;
+
+    private ConfigurableApplicationContext context;
+    private ProjectIngestService projectIngestService;
+    private ObjectMapper objectMapper;
+    private SyntheticDataset dataset;
+    private int sequence;
+
+    private Project project;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("ingest");
+        projectIngestService = context.getBean(ProjectIngestService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        dataset = new SyntheticDataset(42);
+    }
+
+    // Cada invocación inserta un proyecto nuevo (ids distintos); la generación queda fuera de la medida
+    @Setup(Level.Invocation)
+    public void nextProject() throws Exception {
+        project = dataset.project("p" + sequence++, commits, commits / 5, 5);
+        payload = objectMapper.writeValueAsBytes(project);
+    }
+
+    // Mismo camino que ProjectController#create
+    @Benchmark
+    public Object create() throws Exception {
+        return projectIngestService.create(project);
+    }
+
+    @Benchmark
+    public Object streamingIngest() throws Exception {
+        return projectIngestService.ingest(new ByteArrayInputStream(payload));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
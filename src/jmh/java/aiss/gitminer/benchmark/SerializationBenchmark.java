@@ -0,0 +1,78 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización con el ObjectMapper de la aplicación de páginas de proyectos e issues (objetos en memoria, sin base de datos)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<Project> projectPage;
+    private List<Issue> issuePage;
+    private byte[] issuePageJson;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        context = BenchmarkContext.start("serialization");
+        objectMapper = context.getBean(ObjectMapper.class);
+        SyntheticDataset dataset = new SyntheticDataset(3);
+        projectPage = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            projectPage.add(dataset.project("p" + i, 20, 10, 3));
+        }
+        issuePage = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            issuePage.add(dataset.issue("i" + i, 5));
+        }
+        issuePageJson = objectMapper.writeValueAsBytes(issuePage);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectPage() throws Exception {
+        return objectMapper.writeValueAsBytes(projectPage);
+    }
+
+    @Benchmark
+    public byte[] serializeIssuePage() throws Exception {
+        return objectMapper.writeValueAsBytes(issuePage);
+    }
+
+    @Benchmark
+    public Object deserializeIssuePage() throws Exception {
+        return objectMapper.readValue(issuePageJson, Issue[].class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,113 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.service.ProjectIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Perfil por defecto (H2 en memoria, ddl-auto) frente al perfil prod (H2 en fichero, Flyway)
+// - startup: arranque en frío, una vez por fork (JVM nueva) y sobre un directorio vacío, así que incluye las migraciones
+// - ingest: escritura de un proyecto de 10.000 commits y 2.000 issues con 5 comentarios cada una (22.000 filas)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageModeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Storage {
+
+        @Param({ "memory", "file" })
+        public String storage;
+
+        private Path dataDir;
+        private ConfigurableApplicationContext started;
+
+        @Setup(Level.Trial)
+        public void createDataDir() throws IOException {
+            dataDir = Files.createTempDirectory("gitminer-storage-");
+        }
+
+        ConfigurableApplicationContext start() {
+            return "file".equals(storage) ? BenchmarkContext.startPersistent(dataDir) : BenchmarkContext.start("storage");
+        }
+
+        @TearDown(Level.Iteration)
+        public void stopStarted() {
+            if (started != null) {
+                started.close();
+                started = null;
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteDataDir() throws IOException {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Running {
+
+        private ConfigurableApplicationContext context;
+        private ProjectIngestService projectIngestService;
+        private ObjectMapper objectMapper;
+        private SyntheticDataset dataset;
+        private int sequence;
+        private byte[] payload;
+
+        @Setup(Level.Trial)
+        public void start(Storage storage) {
+            context = storage.start();
+            projectIngestService = context.getBean(ProjectIngestService.class);
+            objectMapper = context.getBean(ObjectMapper.class);
+            dataset = new SyntheticDataset(7);
+        }
+
+        // La generación del proyecto queda fuera de la medida
+        @Setup(Level.Invocation)
+        public void nextProject() throws Exception {
+            payload = objectMapper.writeValueAsBytes(dataset.project("s" + sequence++, 10_000, 2_000, 5));
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public Object startup(Storage storage) {
+        storage.started = storage.start();
+        return storage.started;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @Fork(5)
+    public Object ingest(Running running) throws Exception {
+        return running.projectIngestService.ingest(new ByteArrayInputStream(running.payload));
+    }
+}
@@ -0,0 +1,119 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import aiss.gitminer.model.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generador de proyectos sintéticos. Con la misma semilla produce exactamente los mismos datos,
+// así los resultados de distintas ejecuciones son comparables
+public final class SyntheticDataset {
+
+    static final String[] STATES = { "opened", "closed" };
+    private static final String[] LABELS = { "bug", "enhancement", "documentation", "question", "performance", "security" };
+    private static final String[] WORDS = { "fix", "memory", "leak", "parser", "cache", "refactor", "index", "query",
+            "timeout", "thread", "commit", "merge", "build", "test", "serializer", "endpoint", "repository", "update" };
+    private static final Instant EPOCH = Instant.parse("2020-01-01T00:00:00Z");
+    // Los autores se reparten entre un conjunto fijo de personas, como en un proyecto real
+    static final int USERS = 200;
+
+    private final Random random;
+
+    public SyntheticDataset(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public Project project(String id, int commits, int issues, int commentsPerIssue) {
+        Project project = new Project(id, "project " + id, "https://gitlab.com/" + id, new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < commits; i++) {
+            project.getCommits().add(commit(id + "-c" + i));
+        }
+        for (int i = 0; i < issues; i++) {
+            project.getIssues().add(issue(id + "-i" + i, commentsPerIssue));
+        }
+        return project;
+    }
+
+    public Commit commit(String id) {
+        Commit commit = new Commit();
+        commit.setId(id);
+        commit.setTitle(sentence(6));
+        commit.setMessage(sentence(40));
+        commit.setAuthorName("author " + random.nextInt(200));
+        commit.setAuthorEmail("author" + random.nextInt(200) + "@example.com");
+        commit.setAuthoredDate(instant());
+        commit.setWebUrl("https://gitlab.com/commit/" + id);
+        return commit;
+    }
+
+    public Issue issue(String id, int comments) {
+        Issue issue = new Issue();
+        issue.setId(id);
+        issue.setTitle(sentence(8));
+        issue.setDescription(sentence(80));
+        issue.setState(STATES[random.nextInt(STATES.length)]);
+        issue.setCreatedAt(instant());
+        issue.setUpdatedAt(issue.getCreatedAt().plus(Duration.ofHours(random.nextInt(500))));
+        if ("closed".equals(issue.getState())) {
+            issue.setClosedAt(issue.getUpdatedAt());
+        }
+        List<String> labels = new ArrayList<>();
+        labels.add(LABELS[random.nextInt(LABELS.length)]);
+        issue.setLabels(labels);
+        issue.setAuthor(pooledUser());
+        issue.setAssignee(random.nextBoolean() ? pooledUser() : null);
+        issue.setVotes(random.nextInt(50));
+        List<Comment> issueComments = new ArrayList<>();
+        for (int i = 0; i < comments; i++) {
+            issueComments.add(comment(id + "-m" + i));
+        }
+        issue.setComments(issueComments);
+        return issue;
+    }
+
+    public Comment comment(String id) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setBody(sentence(30));
+        comment.setAuthor(pooledUser());
+        comment.setCreatedAt(instant());
+        comment.setUpdatedAt(comment.getCreatedAt());
+        return comment;
+    }
+
+    public User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setName("User " + id);
+        user.setAvatarUrl("https://gitlab.com/avatar/" + id);
+        user.setWebUrl("https://gitlab.com/" + id);
+        return user;
+    }
+
+    private User pooledUser() {
+        return user("u" + random.nextInt(USERS));
+    }
+
+    private Instant instant() {
+        return EPOCH.plus(Duration.ofMinutes(random.nextInt(3 * 365 * 24 * 60)));
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
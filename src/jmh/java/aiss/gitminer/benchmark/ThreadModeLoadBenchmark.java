@@ -0,0 +1,98 @@
+package aiss.gitminer.benchmark;
+
+import aiss.gitminer.model.Project;
+import aiss.gitminer.repository.ProjectRepository;
+import aiss.gitminer.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Prueba de carga HTTP: mismas peticiones contra Tomcat con hilos del sistema y con hilos virtuales
+// Throughput da peticiones/ms; SampleTime da la distribución de latencias (p0.99 en la salida de JMH)
+// Hay más clientes concurrentes (@Threads) que hilos de Tomcat y que conexiones de Hikari, para que se vea qué límite manda
+// Los clientes y el servidor comparten JVM y CPU: con una sola CPU el límite es ella y los dos modos no se distinguen
+// El modo virtual necesita Java 21: ./mvnw -Pbenchmark,java21 test-compile exec:exec -Djmh.args="ThreadModeLoad"
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModeLoadBenchmark {
+
+    private static final int PROJECTS = 10;
+    private static final int ISSUES_PER_PROJECT = 500;
+
+    @Param({ "platform", "virtual" })
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.startWeb("load-" + mode,
+                "gitminer.threads.mode=" + mode,
+                "server.tomcat.threads.max=200",
+                "spring.datasource.hikari.maximum-pool-size=10");
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        UserService userService = context.getBean(UserService.class);
+        SyntheticDataset dataset = new SyntheticDataset(11);
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = dataset.project("p" + i, 100, ISSUES_PER_PROJECT, 3);
+            userService.internUsers(project);
+            projectRepository.save(project);
+        }
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/gitminer";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    // Listado filtrado: una consulta paginada y la carga por lotes de las relaciones
+    @Benchmark
+    public int listIssues() throws IOException, InterruptedException {
+        return get("/issues?state=opened&size=20&expand=labels,author");
+    }
+
+    // Lectura por id de una issue cualquiera con sus comentarios
+    @Benchmark
+    public int findIssue() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return get("/issues/p" + random.nextInt(PROJECTS) + "-i" + random.nextInt(ISSUES_PER_PROJECT));
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package aiss.gitminer.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Generación (contador de cambios) por tabla, base de los ETag de los listados (ConditionalRequestInterceptor)
+// Las escrituras de Hibernate se detectan en QueryCounter; las de JDBC directo llaman a touched()
+// Cada tabla se incrementa al escribir y otra vez al terminar la transacción: así una lectura que coincida con
+// una escritura en curso nunca queda asociada a la generación final con datos anteriores al commit
+public final class ChangeTracker {
+
+    // Las generaciones viven en memoria y solo ven las escrituras de esta instancia. El epoch es distinto en cada arranque
+    // (y en cada instancia), así que un ETag de otra instancia o de antes de reiniciar nunca coincide: cuesta un 200, no un 304 falso.
+    // Con varias instancias escribiendo en la misma base de datos, una no se entera de lo que escriben las demás:
+    // en ese caso hay que desactivar los ETag de los listados (gitminer.http.etag.collections=false)
+    private static final long EPOCH = System.currentTimeMillis();
+    private static final Pattern WRITE = Pattern.compile(
+            "^\\s*(?:insert\\s+into|update|delete\\s+from|merge\\s+into)\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+    private static final Map<String, AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+    private static final Object TOUCHED_KEY = new Object();
+
+    private ChangeTracker() {
+    }
+
+    static void statement(String sql) {
+        Matcher matcher = WRITE.matcher(sql);
+        if (matcher.find()) {
+            touched(matcher.group(1));
+        }
+    }
+
+    public static void touched(String... tables) {
+        for (String table : tables) {
+            track(table.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void track(String key) {
+        increment(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Set<String> touched = (Set<String>) TransactionSynchronizationManager.getResource(TOUCHED_KEY);
+        if (touched == null) {
+            Set<String> tables = new HashSet<>();
+            touched = tables;
+            TransactionSynchronizationManager.bindResource(TOUCHED_KEY, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TOUCHED_KEY);
+                    tables.forEach(ChangeTracker::increment);
+                }
+            });
+        }
+        touched.add(key);
+    }
+
+    public static String version(String... tables) {
+        StringBuilder version = new StringBuilder().append(EPOCH);
+        for (String table : tables) {
+            AtomicLong generation = GENERATIONS.get(table);
+            version.append(':').append(generation == null ? 0 : generation.get());
+        }
+        return version.toString();
+    }
+
+    private static void increment(String table) {
+        GENERATIONS.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+    }
+}
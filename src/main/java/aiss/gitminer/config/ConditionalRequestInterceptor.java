@@ -0,0 +1,175 @@
+package aiss.gitminer.config;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UriUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// ETag de las lecturas calculado antes de ejecutar el controlador, junto con la URL y el formato y la codificación pedidos.
+// Si coincide con If-None-Match se responde 304 sin cargar la entidad ni serializar nada
+// - Proyecto, issue o comentario sueltos: la columna version (@Version) de su fila, una consulta por clave primaria.
+//   Al salir de la base de datos es la misma en todas las instancias
+// - Listados y relaciones incluidas con expand: la generación de las tablas que aparecen en la respuesta (ChangeTracker).
+//   Es propia de cada instancia, por eso se puede desactivar con gitminer.http.etag.collections
+class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private static final String BASE = "/gitminer/";
+    // Recurso -> tabla con columna version
+    private static final Map<String, String> VERSIONED = Map.of(
+            "projects", "project",
+            "issues", "issue",
+            "comments", "comment");
+    // Relación de ?expand= -> tablas que añade a la respuesta
+    private static final Map<String, List<String>> EXPANDED = Map.of(
+            "commits", List.of("commit"),
+            "issues", List.of("issue", "issue_labels"),
+            "comments", List.of("comment"),
+            "labels", List.of("issue_labels"),
+            "author", List.of("gmuser"),
+            "assignee", List.of("gmuser"));
+
+    private final CacheControl cacheControl;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean collections;
+
+    ConditionalRequestInterceptor(CacheControl cacheControl, JdbcTemplate jdbcTemplate, boolean collections) {
+        this.cacheControl = cacheControl;
+        this.jdbcTemplate = jdbcTemplate;
+        this.collections = collections;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        String validator = validator(request);
+        if (validator == null) {
+            return true;
+        }
+        // ETag débil: Tomcat no comprime respuestas con ETag fuerte. Como la codificación pedida forma parte del ETag,
+        // cada representación (gzip o no) tiene el suyo igualmente
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(representation(request, validator).getBytes(StandardCharsets.UTF_8)) + "\"";
+        // Compara con If-None-Match, pone la cabecera ETag y, si no hay cambios, el estado 304
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    private static String representation(HttpServletRequest request, String validator) {
+        String query = request.getQueryString();
+        return validator + '|' + request.getRequestURI() + (query == null ? "" : '?' + query)
+                + '|' + request.getHeader(HttpHeaders.ACCEPT) + '|' + request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    // null: la respuesta no lleva ETag
+    private String validator(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith(BASE)) {
+            return null;
+        }
+        String[] path = uri.substring(BASE.length()).split("/");
+        String table = VERSIONED.get(path[0]);
+        if (table != null && path.length == 2 && !"batch".equals(path[1])) {
+            List<Long> version = jdbcTemplate.queryForList("SELECT version FROM " + table + " WHERE id = ?", Long.class,
+                    UriUtils.decode(path[1], StandardCharsets.UTF_8));
+            // Si no existe, el controlador responde 404; sin versión (filas anteriores a V4) no hay con qué comparar
+            if (version.size() != 1 || version.get(0) == null) {
+                return null;
+            }
+            Set<String> embedded = embedded(path[0], request);
+            if (embedded.isEmpty()) {
+                return table + ':' + version.get(0);
+            }
+            return collections ? table + ':' + version.get(0) + ':' + ChangeTracker.version(embedded.toArray(String[]::new)) : null;
+        }
+        String[] tables = tables(path, request);
+        return collections && tables != null ? ChangeTracker.version(tables) : null;
+    }
+
+    // Tablas de las relaciones pedidas con expand; la versión de la entidad no cambia cuando se modifican sus hijos
+    // Un comentario se devuelve siempre con su autor
+    private static Set<String> embedded(String resource, HttpServletRequest request) {
+        Set<String> tables = new TreeSet<>();
+        if ("comments".equals(resource)) {
+            tables.add("gmuser");
+        }
+        String[] expand = request.getParameterValues("expand");
+        if (expand != null) {
+            Arrays.stream(expand)
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(relation -> EXPANDED.getOrDefault(relation.trim(), List.of()))
+                    .forEach(tables::addAll);
+        }
+        return tables;
+    }
+
+    // Tablas que aparecen en la respuesta de cada listado (con sus relaciones, si se piden); null si no se conocen
+    private static String[] tables(String[] path, HttpServletRequest request) {
+        Set<String> tables = new TreeSet<>();
+        switch (path[0]) {
+            case "commits":
+                tables.add("commit");
+                break;
+            case "comments":
+                tables.add("comment");
+                tables.add("gmuser");
+                break;
+            case "issues":
+                tables.add("issue");
+                if (path.length == 3 && "comments".equals(path[2])) {
+                    tables.add("comment");
+                    tables.add("gmuser");
+                }
+                break;
+            case "search":
+                tables.addAll(List.of("commit", "issue", "comment"));
+                break;
+            case "projects":
+                tables.add("project");
+                if (path.length == 3) {
+                    List<String> derived = derived(path[2]);
+                    if (derived == null) {
+                        return null;
+                    }
+                    tables.addAll(derived);
+                }
+                break;
+            default:
+                return null;
+        }
+        tables.addAll(embedded(path[0], request));
+        return tables.toArray(String[]::new);
+    }
+
+    // Subrecursos de un proyecto: cada uno se lee de sus propias tablas
+    private static List<String> derived(String subresource) {
+        switch (subresource) {
+            case "stats":
+                return List.of("project_stats", "project_author_stats", "project_label_stats");
+            case "contributors":
+                return List.of("project_author_stats", "commit");
+            case "activity":
+                return List.of("project_activity");
+            case "lifecycle":
+                return List.of("project_lifecycle_histogram");
+            case "labels":
+                return List.of("project_label_stats");
+            case "export":
+                return List.of("commit", "issue", "issue_labels", "comment", "gmuser");
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package aiss.gitminer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+// Peticiones condicionales (ETag / If-None-Match) y Cache-Control en todas las lecturas de /gitminer
+// El estado de los trabajos de ingesta cambia sin escribir en la base de datos, así que queda fuera
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    private final int maxAgeSeconds;
+    private final boolean collectionEtags;
+    private final JdbcTemplate jdbcTemplate;
+
+    public HttpCacheConfig(@Value("${gitminer.http.cache-max-age-seconds:0}") int maxAgeSeconds,
+                           @Value("${gitminer.http.etag.collections:true}") boolean collectionEtags,
+                           JdbcTemplate jdbcTemplate) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.collectionEtags = collectionEtags;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+        registry.addInterceptor(new ConditionalRequestInterceptor(cacheControl, jdbcTemplate, collectionEtags))
+                .addPathPatterns("/gitminer/**")
+                .excludePathPatterns("/gitminer/projects/ingest/**");
+    }
+}
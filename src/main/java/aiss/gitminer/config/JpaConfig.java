@@ -0,0 +1,10 @@
+package aiss.gitminer.config;
+
+import aiss.gitminer.repository.SliceRepositoryImpl;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "aiss.gitminer.repository", repositoryBaseClass = SliceRepositoryImpl.class)
+public class JpaConfig {
+}
@@ -0,0 +1,26 @@
+package aiss.gitminer.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate pasa por aquí cada sentencia SQL antes de prepararla; solo la contamos, sin modificarla
+// El contador es por hilo, así que equivale al número de consultas de la petición en curso
+// Las escrituras se notifican además a ChangeTracker para invalidar los ETag
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        ChangeTracker.statement(sql);
+        return sql;
+    }
+
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    static long get() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,46 @@
+package aiss.gitminer.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Modo de ejecución de las peticiones HTTP (gitminer.threads.mode):
+// - platform (por defecto): pool de hilos de Tomcat (server.tomcat.threads.max)
+// - virtual: un hilo virtual por petición (requiere Java 21). Las peticiones bloqueadas en JDBC no ocupan un hilo del sistema,
+//   así que el límite real pasa a ser el pool de conexiones de Hikari (spring.datasource.hikari.maximum-pool-size)
+@Configuration
+public class ThreadingConfig {
+
+    // Tomcat no cierra un executor que no ha creado él: se cierra al destruir el bean, después de parar el servidor web
+    // Nada en la aplicación usa el applicationTaskExecutor de Spring Boot, que deja de crearse al haber otro Executor
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "gitminer.threads.mode", havingValue = "virtual")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gitminer.threads.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler(
+            @Qualifier("virtualThreadExecutor") ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Se obtiene por reflexión para que el mismo artefacto compilado para Java 17 arranque en ambos modos
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("gitminer.threads.mode=virtual requires Java 21 or later (running on "
+                    + System.getProperty("java.version") + ")", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available in this JVM", e);
+        }
+    }
+}
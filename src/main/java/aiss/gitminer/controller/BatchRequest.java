@@ -0,0 +1,20 @@
+package aiss.gitminer.controller;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Cuerpo de POST .../batch, para listas de ids que no caben cómodamente en la URL
+public class BatchRequest {
+
+    @JsonProperty("ids")
+    private List<String> ids;
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,27 @@
+package aiss.gitminer.controller;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Respuesta de una búsqueda por lotes: los elementos encontrados (en el orden pedido) y los ids que no existen
+public class BatchResult<T> {
+
+    @JsonProperty("found")
+    private final List<T> found;
+    @JsonProperty("missing")
+    private final List<String> missing;
+
+    BatchResult(List<T> found, List<String> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    public List<T> getFound() {
+        return found;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
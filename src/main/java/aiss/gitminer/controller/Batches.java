@@ -0,0 +1,49 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.InvalidBatchException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Búsqueda de muchos elementos por id con una sola consulta (WHERE id IN (...)) en lugar de una petición por id
+// Los ids inexistentes se devuelven en "missing" en vez de hacer fallar todo el lote con un 404
+final class Batches {
+
+    static final int MAX_IDS = 1000;
+
+    private Batches() {
+    }
+
+    static <T> BatchResult<T> lookup(JpaRepository<T, String> repository, List<String> ids, Function<T, String> idOf) throws InvalidBatchException {
+        Set<String> requested = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (id != null && !id.isBlank()) {
+                    requested.add(id.trim());
+                }
+            }
+        }
+        if (requested.isEmpty() || requested.size() > MAX_IDS) {
+            throw new InvalidBatchException();
+        }
+        Map<String, T> byId = repository.findAllById(requested).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> found = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : requested) {
+            T element = byId.get(id);
+            if (element != null) {
+                found.add(element);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(found, missing);
+    }
+}
@@ -1,8 +1,12 @@
 package aiss.gitminer.controller;
 
 import aiss.gitminer.exception.CommentNotFoundException;
+import aiss.gitminer.exception.InvalidBatchException;
+import aiss.gitminer.exception.InvalidCursorException;
+import aiss.gitminer.exception.InvalidFieldsException;
 import aiss.gitminer.model.Comment;
 import aiss.gitminer.repository.CommentRepository;
+import aiss.gitminer.repository.Specifications;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -15,10 +19,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Tag(name = "Comment", description = "Comment management API")
@@ -52,17 +61,36 @@ public class CommentController {
             content = { @Content(schema = @Schema())})
     })
 
+    // GET http://localhost:8080/api/comments[?after=<cursor>&size=10&total=true&since=2023-01-01T00:00:00Z]
     @GetMapping
-    public List<Comment> findAll(@Parameter(description="Zero-based page index (0..N), default 0")
+    public ResponseEntity<List<?>> findAll(@Parameter(description="Zero-based page index (0..N), default 0")
                                  @RequestParam(defaultValue="0") Integer page,
                                  @Parameter(description="Number of comments per page, default = 10")
                                  @RequestParam(defaultValue="10") Integer size,
                                  @Parameter(description="Sorting criteria in the format: property(asc|desc). Default sort order is ascending. Sorted by the attribute name")
-                                 @RequestParam(required=false) String order){
+                                 @RequestParam(required=false) String order,
+                                 @Parameter(description = "Only elements with created_at at or after this instant (ISO-8601)", example = "2023-01-01T00:00:00Z")
+                                 @RequestParam(required=false) Instant since,
+                                 @Parameter(description = "Only elements with created_at before this instant (ISO-8601)", example = "2023-02-01T00:00:00Z")
+                                 @RequestParam(required=false) Instant until,
+                                 @Parameter(description = "Opaque cursor returned in the X-Next-Cursor header. Enables cursor pagination ordered by id (empty for the first page); page and order are then ignored")
+                                 @RequestParam(required=false) String after,
+                                 @Parameter(description = "Whether to return the total number of elements in the X-Total-Count header, default = false")
+                                 @RequestParam(defaultValue="false") Boolean total,
+                                 @Parameter(description = "Columns to return, by their name in the response (id is always included). Relations cannot be selected", example = "id,body,created_at")
+                                 @RequestParam(required=false) List<String> fields) throws InvalidCursorException, InvalidFieldsException {
 
-        Page<Comment> pageComments;
+        // Filtros de la consulta; el cursor se añade aparte para que no afecte al total
+        Specification<Comment> filters = Specification.<Comment>where(Specifications.since("createdAt", since))
+                .and(Specifications.until("createdAt", until));
+        Specification<Comment> spec = filters;
+        Slice<Comment> pageComments;
         Pageable paging;
-        if(order != null){
+        if(after != null){
+            // Modo cursor: sin OFFSET, la consulta usa el índice de la clave primaria
+            paging = Cursors.paging(size);
+            spec = filters.and(Specifications.idAfter(Cursors.decode(after, order)));
+        } else if(order != null){
             if(order.startsWith("-")) {
                 paging = PageRequest.of(page, size, Sort.by(order.substring(1)).descending());
             } else {
@@ -71,8 +99,51 @@ public class CommentController {
         } else {
             paging = PageRequest.of(page, size);
         }
-        pageComments = commentRepository.findAll(paging);
-        return pageComments.getContent();
+        if(fields != null){
+            // Proyección: el SELECT solo lee las columnas pedidas, sin entidades ni relaciones
+            Slice<Map<String, Object>> rows = commentRepository.findSlice(spec, paging, Fields.select(Comment.class, fields));
+            return ResponseEntity.ok()
+                    .headers(Cursors.headers(rows, after != null, Fields::idOf, total ? commentRepository.count(filters) : null))
+                    .body(rows.getContent());
+        }
+        pageComments = commentRepository.findSlice(spec, paging);
+        return ResponseEntity.ok()
+                .headers(Cursors.headers(pageComments, after != null, Comment::getId, total ? commentRepository.count(filters) : null))
+                .body(pageComments.getContent());
+    }
+
+    @Operation(
+            summary = "Get comments by a list of IDs",
+            description = "Returns the comments with the given IDs (up to " + Batches.MAX_IDS + ") using a single query. IDs that do not exist are listed in missing instead of failing the request",
+            tags = { "comment", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Comments Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/comments/batch?ids=id1,id2,id3
+    @GetMapping("/batch")
+    public BatchResult<Comment> findByIds(@Parameter(description="IDs of the comments to be searched for")@RequestParam List<String> ids) throws InvalidBatchException {
+        return Batches.lookup(commentRepository, ids, Comment::getId);
+    }
+
+    @Operation(
+            summary = "Get comments by a list of IDs (POST)",
+            description = "Same as GET /batch, with the IDs in the body for lists that do not fit in the URL",
+            tags = { "comment", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Comments Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/comments/batch  {"ids": ["id1", "id2"]}
+    @PostMapping("/batch")
+    public BatchResult<Comment> findByIds(@RequestBody BatchRequest request) throws InvalidBatchException {
+        return Batches.lookup(commentRepository, request.getIds(), Comment::getId);
     }
 
     @Operation(
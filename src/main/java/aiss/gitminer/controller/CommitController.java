@@ -1,9 +1,13 @@
 package aiss.gitminer.controller;
 
 import aiss.gitminer.exception.CommitNotFoundException;
+import aiss.gitminer.exception.InvalidBatchException;
+import aiss.gitminer.exception.InvalidCursorException;
+import aiss.gitminer.exception.InvalidFieldsException;
 import aiss.gitminer.model.Comment;
 import aiss.gitminer.model.Commit;
 import aiss.gitminer.repository.CommitRepository;
+import aiss.gitminer.repository.Specifications;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,10 +20,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Tag(name = "Commit", description = "Commit management API")
@@ -51,18 +60,36 @@ public class CommitController {
             @ApiResponse(responseCode = "404", description = "Commits Not Found",
             content = { @Content(schema= @Schema())})
     })
-    // GET http://localhost:8080/api/commits
+    // GET http://localhost:8080/api/commits[?after=<cursor>&size=10&total=true&since=2023-01-01T00:00:00Z]
     @GetMapping
-    public List<Commit> findAll(@Parameter(description="Zero-based page index (0..N), default 0")
+    public ResponseEntity<List<?>> findAll(@Parameter(description="Zero-based page index (0..N), default 0")
                                 @RequestParam(defaultValue="0") Integer page,
                                 @Parameter(description="Number of commits per page, default = 10")
                                 @RequestParam(defaultValue="10") Integer size,
                                 @Parameter(description="Sorting criteria in the format: property(asc|desc). Default sort order is ascending. Sorted by the attribute name")
-                                @RequestParam(required=false) String order){
+                                @RequestParam(required=false) String order,
+                                @Parameter(description = "Only elements with authored_date at or after this instant (ISO-8601)", example = "2023-01-01T00:00:00Z")
+                                @RequestParam(required=false) Instant since,
+                                @Parameter(description = "Only elements with authored_date before this instant (ISO-8601)", example = "2023-02-01T00:00:00Z")
+                                @RequestParam(required=false) Instant until,
+                                @Parameter(description = "Opaque cursor returned in the X-Next-Cursor header. Enables cursor pagination ordered by id (empty for the first page); page and order are then ignored")
+                                @RequestParam(required=false) String after,
+                                @Parameter(description = "Whether to return the total number of elements in the X-Total-Count header, default = false")
+                                @RequestParam(defaultValue="false") Boolean total,
+                                @Parameter(description = "Columns to return, by their name in the response (id is always included). Relations cannot be selected", example = "id,title,author_name")
+                                @RequestParam(required=false) List<String> fields) throws InvalidCursorException, InvalidFieldsException {
 
-        Page<Commit> pageCommits;
+        // Filtros de la consulta; el cursor se añade aparte para que no afecte al total
+        Specification<Commit> filters = Specification.<Commit>where(Specifications.since("authoredDate", since))
+                .and(Specifications.until("authoredDate", until));
+        Specification<Commit> spec = filters;
+        Slice<Commit> pageCommits;
         Pageable paging;
-        if(order != null){
+        if(after != null){
+            // Modo cursor: sin OFFSET, la consulta usa el índice de la clave primaria
+            paging = Cursors.paging(size);
+            spec = filters.and(Specifications.idAfter(Cursors.decode(after, order)));
+        } else if(order != null){
             if(order.startsWith("-")) {
                 paging = PageRequest.of(page, size, Sort.by(order.substring(1)).descending());
             } else {
@@ -71,8 +98,51 @@ public class CommitController {
         } else {
             paging = PageRequest.of(page, size);
         }
-        pageCommits = commitRepository.findAll(paging);
-        return pageCommits.getContent();
+        if(fields != null){
+            // Proyección: el SELECT solo lee las columnas pedidas, sin entidades ni relaciones
+            Slice<Map<String, Object>> rows = commitRepository.findSlice(spec, paging, Fields.select(Commit.class, fields));
+            return ResponseEntity.ok()
+                    .headers(Cursors.headers(rows, after != null, Fields::idOf, total ? commitRepository.count(filters) : null))
+                    .body(rows.getContent());
+        }
+        pageCommits = commitRepository.findSlice(spec, paging);
+        return ResponseEntity.ok()
+                .headers(Cursors.headers(pageCommits, after != null, Commit::getId, total ? commitRepository.count(filters) : null))
+                .body(pageCommits.getContent());
+    }
+
+    @Operation(
+            summary = "Get commits by a list of IDs",
+            description = "Returns the commits with the given IDs (up to " + Batches.MAX_IDS + ") using a single query. IDs that do not exist are listed in missing instead of failing the request",
+            tags = { "commit", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Commits Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/commits/batch?ids=id1,id2,id3
+    @GetMapping("/batch")
+    public BatchResult<Commit> findByIds(@Parameter(description="IDs of the commits to be searched for")@RequestParam List<String> ids) throws InvalidBatchException {
+        return Batches.lookup(commitRepository, ids, Commit::getId);
+    }
+
+    @Operation(
+            summary = "Get commits by a list of IDs (POST)",
+            description = "Same as GET /batch, with the IDs in the body for lists that do not fit in the URL",
+            tags = { "commit", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Commits Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/commits/batch  {"ids": ["id1", "id2"]}
+    @PostMapping("/batch")
+    public BatchResult<Commit> findByIds(@RequestBody BatchRequest request) throws InvalidBatchException {
+        return Batches.lookup(commitRepository, request.getIds(), Commit::getId);
     }
 
     @Operation(
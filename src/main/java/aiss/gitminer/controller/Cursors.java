@@ -0,0 +1,60 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Paginación por cursor (keyset): en lugar de OFFSET se pide "id > último id visto" ordenado por la clave primaria,
+// de modo que cualquier página cuesta lo mismo que la primera. El cursor es opaco para el cliente
+final class Cursors {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private Cursors() {
+    }
+
+    // Con ?after= vacío se pide la primera página en modo cursor
+    static String decode(String cursor, String order) throws InvalidCursorException {
+        if (order != null) {
+            throw new InvalidCursorException();
+        }
+        if (cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Pageable paging(Integer size) {
+        return PageRequest.of(0, size, Sort.by("id").ascending());
+    }
+
+    // Cabeceras de la respuesta: cursor de la página siguiente (solo en modo cursor) y total (solo si se ha pedido)
+    static <T> HttpHeaders headers(Slice<T> slice, boolean keyset, Function<T, String> idOf, Long total) {
+        HttpHeaders headers = new HttpHeaders();
+        List<T> content = slice.getContent();
+        if (keyset && slice.hasNext() && !content.isEmpty()) {
+            headers.add(NEXT_CURSOR_HEADER, encode(idOf.apply(content.get(content.size() - 1))));
+        }
+        if (total != null) {
+            headers.add(TOTAL_COUNT_HEADER, String.valueOf(total));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,34 @@
+package aiss.gitminer.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Plan de carga elegido por el cliente con ?expand=issues,comments
+// Las relaciones son LAZY y se cargan por lotes (hibernate.default_batch_fetch_size), así que una relación
+// que no se serializa tampoco se consulta, y una que sí se serializa cuesta una consulta por lote y no una por fila
+final class Expansion {
+
+    static final String FILTER = "expand";
+    static final Set<String> RELATIONS = Set.of("commits", "issues", "comments", "labels", "author", "assignee");
+
+    private Expansion() {
+    }
+
+    // Sin parámetro expand no se incluye ninguna relación: solo se cargan y serializan las que el cliente pide
+    // El filtro se aplica a Project, Issue y Comment, así que "author" también decide si se cargan los autores de los comentarios
+    static MappingJacksonValue apply(Object body, List<String> expand) {
+        Set<String> excluded = new HashSet<>(RELATIONS);
+        if (expand != null) {
+            excluded.removeAll(expand);
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAllExcept(excluded)));
+        return value;
+    }
+}
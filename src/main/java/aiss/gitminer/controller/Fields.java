@@ -0,0 +1,69 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.InvalidFieldsException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Proyección elegida por el cliente con ?fields=id,title,state
+// Los nombres son los de la respuesta JSON; se traducen a atributos de la entidad para que el SELECT solo lea esas columnas
+// Solo se admiten columnas propias: las relaciones (author, comments, labels...) se piden con ?expand= sobre la entidad completa
+final class Fields {
+
+    private static final Map<Class<?>, Map<String, String>> SELECTABLE = new ConcurrentHashMap<>();
+
+    private Fields() {
+    }
+
+    // El id se incluye siempre: lo necesita el cursor de la página siguiente
+    static Map<String, String> select(Class<?> type, List<String> fields) throws InvalidFieldsException {
+        Map<String, String> selectable = SELECTABLE.computeIfAbsent(type, Fields::selectable);
+        Map<String, String> selection = new LinkedHashMap<>();
+        selection.put("id", "id");
+        for (String field : fields) {
+            String name = field.trim();
+            String attribute = selectable.get(name);
+            if (attribute == null) {
+                throw new InvalidFieldsException();
+            }
+            selection.put(name, attribute);
+        }
+        return selection;
+    }
+
+    static String idOf(Map<String, Object> row) {
+        return (String) row.get("id");
+    }
+
+    private static Map<String, String> selectable(Class<?> type) {
+        Map<String, String> selectable = new LinkedHashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)
+                    || field.isAnnotationPresent(Transient.class) || isRelation(field)) {
+                continue;
+            }
+            JsonProperty property = field.getAnnotation(JsonProperty.class);
+            String name = property != null && !property.value().isEmpty() ? property.value() : field.getName();
+            selectable.put(name, field.getName());
+        }
+        return selectable;
+    }
+
+    private static boolean isRelation(Field field) {
+        return field.isAnnotationPresent(OneToMany.class) || field.isAnnotationPresent(ManyToOne.class)
+                || field.isAnnotationPresent(OneToOne.class) || field.isAnnotationPresent(ManyToMany.class)
+                || field.isAnnotationPresent(ElementCollection.class);
+    }
+}
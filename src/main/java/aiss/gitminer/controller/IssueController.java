@@ -1,10 +1,17 @@
 package aiss.gitminer.controller;
 
+import aiss.gitminer.exception.InvalidBatchException;
+import aiss.gitminer.exception.InvalidCursorException;
+import aiss.gitminer.exception.InvalidFieldsException;
 import aiss.gitminer.exception.IssueNotFoundException;
+import aiss.gitminer.exception.PreconditionFailedException;
+import aiss.gitminer.exception.VersionConflictException;
 import aiss.gitminer.model.Comment;
 import aiss.gitminer.model.Issue;
 import aiss.gitminer.repository.CommentRepository;
 import aiss.gitminer.repository.IssueRepository;
+import aiss.gitminer.repository.Specifications;
+import aiss.gitminer.service.ProjectUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -17,10 +24,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Tag(name = "Issue", description = "Issue management API")
@@ -30,12 +45,15 @@ import java.util.Optional;
 public class IssueController {
     private final IssueRepository issueRepository;
     private final CommentRepository commentRepository;
+    private final ProjectUpdateService projectUpdateService;
 
     // Constructor de la clase
     @Autowired
-    public IssueController(IssueRepository issueRepository, CommentRepository commentRepository) {
+    public IssueController(IssueRepository issueRepository, CommentRepository commentRepository,
+                           ProjectUpdateService projectUpdateService) {
         this.issueRepository = issueRepository;
         this.commentRepository = commentRepository;
+        this.projectUpdateService = projectUpdateService;
     }
 
     // OPERACIONES A REALIZAR
@@ -51,22 +69,65 @@ public class IssueController {
             @ApiResponse(responseCode = "404", description = "Issues Not Found",
                     content = { @Content(schema= @Schema())})
     })
-    // GET http://localhost:8080/api/issues[?state=open&authorId=12345]
+    // GET http://localhost:8080/api/issues[?state=open&authorId=12345&assigneeId=6789&label=bug&minVotes=5&expand=author,labels]
+    // GET http://localhost:8080/api/issues?anyLabels=bug,regression[&allLabels=ui,p1]
+    // GET http://localhost:8080/api/issues?after=<cursor>&size=10[&state=open&total=true&since=2023-01-01T00:00:00Z]
     @GetMapping
-    public List<Issue> findAll(@Parameter(description = "ID of the author", example = "12345")
+    public ResponseEntity<MappingJacksonValue> findAll(@Parameter(description = "ID of the author", example = "12345")
                                @RequestParam(required = false, name= "authorId") String authorId,
                                @Parameter(description = "State of the issue (e.g., open, closed)", example = "open")
                                @RequestParam(required = false, name = "state") String state,
+                               @Parameter(description = "ID of the assignee", example = "12345")
+                               @RequestParam(required = false, name = "assigneeId") String assigneeId,
+                               @Parameter(description = "Label the issue must have", example = "bug")
+                               @RequestParam(required = false, name = "label") String label,
+                               @Parameter(description = "Labels of which the issue must have at least one", example = "bug,regression")
+                               @RequestParam(required = false, name = "anyLabels") List<String> anyLabels,
+                               @Parameter(description = "Labels the issue must have all of", example = "bug,ui")
+                               @RequestParam(required = false, name = "allLabels") List<String> allLabels,
+                               @Parameter(description = "Minimum number of votes (inclusive)", example = "5")
+                               @RequestParam(required = false, name = "minVotes") Integer minVotes,
+                               @Parameter(description = "Maximum number of votes (inclusive)", example = "100")
+                               @RequestParam(required = false, name = "maxVotes") Integer maxVotes,
+                               @Parameter(description = "Only elements with created_at at or after this instant (ISO-8601)", example = "2023-01-01T00:00:00Z")
+                               @RequestParam(required=false) Instant since,
+                               @Parameter(description = "Only elements with created_at before this instant (ISO-8601)", example = "2023-02-01T00:00:00Z")
+                               @RequestParam(required=false) Instant until,
                                @Parameter(description = "Zero-based page index (0..N), default 0")
                                @RequestParam(defaultValue="0") Integer page,
                                @Parameter(description = "Number of issues per page, default = 10")
                                @RequestParam(defaultValue="10") Integer size,
                                @Parameter(description = "Sorting criteria in the format: property(asc|desc). Default sort order is ascending. Sorted by the attribute name")
-                               @RequestParam(required=false) String order) {
+                               @RequestParam(required=false) String order,
+                               @Parameter(description = "Relations to include in the response (commits, issues, comments, labels, author, assignee). None of them if omitted", example = "author,labels")
+                               @RequestParam(required=false) List<String> expand,
+                               @Parameter(description = "Opaque cursor returned in the X-Next-Cursor header. Enables cursor pagination ordered by id (empty for the first page); page and order are then ignored")
+                               @RequestParam(required=false) String after,
+                               @Parameter(description = "Whether to return the total number of elements in the X-Total-Count header, default = false")
+                               @RequestParam(defaultValue="false") Boolean total,
+                               @Parameter(description = "Columns to return, by their name in the response (id is always included). Relations cannot be selected", example = "id,title,state")
+                               @RequestParam(required=false) List<String> fields) throws InvalidCursorException, InvalidFieldsException {
 
-        Page<Issue> pageIssues;
+        // Filtros de la consulta; el cursor se añade aparte para que no afecte al total
+        // Cualquier combinación de filtros se resuelve con una única consulta
+        Specification<Issue> filters = Specification.<Issue>where(Specifications.equal("state", state))
+                .and(Specifications.equal("author.id", authorId))
+                .and(Specifications.equal("assignee.id", assigneeId))
+                .and(Specifications.member("labels", label))
+                .and(Specifications.anyMember("labels", anyLabels))
+                .and(Specifications.allMembers("labels", allLabels))
+                .and(Specifications.atLeast("votes", minVotes))
+                .and(Specifications.atMost("votes", maxVotes))
+                .and(Specifications.since("createdAt", since))
+                .and(Specifications.until("createdAt", until));
+        Specification<Issue> spec = filters;
+        Slice<Issue> pageIssues;
         Pageable paging;
-        if(order != null){
+        if(after != null){
+            // Modo cursor: sin OFFSET, la consulta usa el índice de la clave primaria
+            paging = Cursors.paging(size);
+            spec = filters.and(Specifications.idAfter(Cursors.decode(after, order)));
+        } else if(order != null){
             if(order.startsWith("-")) {
                 paging = PageRequest.of(page, size, Sort.by(order.substring(1)).descending());
             } else {
@@ -75,19 +136,55 @@ public class IssueController {
         } else {
             paging = PageRequest.of(page, size);
         }
-        pageIssues = issueRepository.findAll(paging);
-
-        if(authorId != null) {
-            pageIssues = issueRepository.findByAuthorId(authorId, paging);
-        }
-        if(state != null) {
-            pageIssues = issueRepository.findByState(state, paging);
-        }
-        // Si los dos datos no son null (esto no aparece en las pruebas Postman)
-        if(authorId != null && state != null) {
-            pageIssues = issueRepository.findByStateAndAuthorId(authorId, state, paging);
+        if(fields != null){
+            // Proyección: el SELECT solo lee las columnas pedidas, sin entidades ni relaciones
+            Slice<Map<String, Object>> rows = issueRepository.findSlice(spec, paging, Fields.select(Issue.class, fields));
+            return ResponseEntity.ok()
+                    .headers(Cursors.headers(rows, after != null, Fields::idOf, total ? issueRepository.count(filters) : null))
+                    .body(new MappingJacksonValue(rows.getContent()));
         }
-        return pageIssues.getContent();
+        pageIssues = issueRepository.findSlice(spec, paging);
+        return ResponseEntity.ok()
+                .headers(Cursors.headers(pageIssues, after != null, Issue::getId, total ? issueRepository.count(filters) : null))
+                .body(Expansion.apply(pageIssues.getContent(), expand));
+    }
+
+    @Operation(
+            summary = "Get issues by a list of IDs",
+            description = "Returns the issues with the given IDs (up to " + Batches.MAX_IDS + ") using a single query. IDs that do not exist are listed in missing instead of failing the request",
+            tags = { "issue", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Issues Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/issues/batch?ids=id1,id2,id3&expand=labels
+    @GetMapping("/batch")
+    public MappingJacksonValue findByIds(@Parameter(description="IDs of the issues to be searched for")@RequestParam List<String> ids,
+                                   @Parameter(description = "Relations to include in the response (comments, labels, author, assignee). None of them if omitted", example = "labels,author")
+                                   @RequestParam(required=false) List<String> expand) throws InvalidBatchException {
+        return Expansion.apply(Batches.lookup(issueRepository, ids, Issue::getId), expand);
+    }
+
+    @Operation(
+            summary = "Get issues by a list of IDs (POST)",
+            description = "Same as GET /batch, with the IDs in the body for lists that do not fit in the URL",
+            tags = { "issue", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Issues Found by ID",
+            content = { @Content(schema= @Schema(implementation = BatchResult.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty Or Too Large Batch",
+            content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/issues/batch  {"ids": ["id1", "id2"]}
+    @PostMapping("/batch")
+    public MappingJacksonValue findByIds(@RequestBody BatchRequest request,
+                                   @Parameter(description = "Relations to include in the response (comments, labels, author, assignee). None of them if omitted", example = "labels,author")
+                                   @RequestParam(required=false) List<String> expand) throws InvalidBatchException {
+        return Expansion.apply(Batches.lookup(issueRepository, request.getIds(), Issue::getId), expand);
     }
 
     @Operation(
@@ -103,12 +200,44 @@ public class IssueController {
     })
     // GET http://localhost:8080/api/issues/{id}
     @GetMapping("/{id}")
-    public Issue findById(@Parameter(description= "ID of the issue to be searched for")@PathVariable String id) throws IssueNotFoundException {
+    public MappingJacksonValue findById(@Parameter(description= "ID of the issue to be searched for")@PathVariable String id,
+                                        @Parameter(description = "Relations to include in the response (commits, issues, comments, labels, author, assignee). None of them if omitted", example = "comments")
+                                        @RequestParam(required=false) List<String> expand) throws IssueNotFoundException {
         Optional<Issue> issue = issueRepository.findById(id);
         if(!issue.isPresent()){
             throw new IssueNotFoundException();
         }
-        return issue.get();
+        return Expansion.apply(issue.get(), expand);
+    }
+
+    @Operation(
+            summary = "Update an issue",
+            description = "Updates an issue and its comments by its ID. Only the issue and the comments that have changed are written. " +
+                    "Send the version read in the If-Match header to update only if nobody has modified the issue since then; " +
+                    "each comment can carry its own version in the body",
+            tags = { "issue", "put"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Issue Updated",
+                    content = { @Content(schema= @Schema(implementation = Issue.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Issue Not Found",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Stale Comment Version",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "412", description = "Issue Modified Since The Version In If-Match",
+                    content = { @Content(schema= @Schema())})
+    })
+    // PUT http://localhost:8080/api/issues/{id}  (If-Match: "<version>")
+    @PutMapping("/{id}")
+    public Issue update(@Parameter(description= "ID of the issue to be updated")@PathVariable String id,
+                        @Parameter(description = "Version of the issue the changes are based on")
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                description = "Issue to be updated. Comments omitted are deleted; without the comments field they are left as they are",
+                                required = true,
+                                content = @Content(schema = @Schema(implementation = Issue.class)))
+                        @Valid @RequestBody Issue issue) throws IssueNotFoundException, PreconditionFailedException, VersionConflictException {
+        return projectUpdateService.updateIssue(id, issue, Preconditions.expectedVersion(ifMatch));
     }
 
     @Operation(
@@ -0,0 +1,30 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.PreconditionFailedException;
+
+// Lectura de la cabecera If-Match de las actualizaciones: contiene la versión (campo "version") con la que se leyó el recurso
+// Se aceptan 3, "3" y W/"3"; sin cabecera o con * la actualización es incondicional
+final class Preconditions {
+
+    private Preconditions() {
+    }
+
+    static Long expectedVersion(String ifMatch) throws PreconditionFailedException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            // Una etiqueta que no es una versión nunca coincide con la actual
+            throw new PreconditionFailedException();
+        }
+    }
+}
@@ -1,9 +1,36 @@
 package aiss.gitminer.controller;
 
+import aiss.gitminer.exception.IngestJobNotFoundException;
+import aiss.gitminer.exception.InvalidActivityBucketException;
+import aiss.gitminer.exception.IngestQueueFullException;
+import aiss.gitminer.exception.InvalidCursorException;
+import aiss.gitminer.exception.InvalidFieldsException;
+import aiss.gitminer.exception.InvalidIngestPayloadException;
+import aiss.gitminer.exception.OwnershipConflictException;
+import aiss.gitminer.exception.PreconditionFailedException;
+import aiss.gitminer.exception.ProjectAlreadyExistsException;
 import aiss.gitminer.exception.ProjectNotFoundException;
+import aiss.gitminer.exception.VersionConflictException;
 import aiss.gitminer.model.Issue;
 import aiss.gitminer.model.Project;
+import aiss.gitminer.model.ProjectActivity;
+import aiss.gitminer.model.ProjectAuthorStats;
+import aiss.gitminer.model.ProjectLabelStats;
 import aiss.gitminer.repository.ProjectRepository;
+import aiss.gitminer.repository.Specifications;
+import aiss.gitminer.service.ActivityBucket;
+import aiss.gitminer.service.IngestJob;
+import aiss.gitminer.service.IngestJobService;
+import aiss.gitminer.service.IngestSummary;
+import aiss.gitminer.service.IssueLifecycleMetrics;
+import aiss.gitminer.service.ProjectDelta;
+import aiss.gitminer.service.ProjectExportService;
+import aiss.gitminer.service.ProjectIngestService;
+import aiss.gitminer.service.ProjectStatistics;
+import aiss.gitminer.service.ProjectStatsService;
+import aiss.gitminer.service.ProjectSyncService;
+import aiss.gitminer.service.ProjectUpdateService;
+import aiss.gitminer.service.SyncSummary;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,28 +39,63 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @Tag(name = "Project", description = "API for managing projects")
 @RestController
 // El decorador @RestController indica que esta clase es un controlador REST, es decir, que maneja peticiones HTTP y devuelve respuestas en formato JSON
 @RequestMapping("/gitminer/projects") // El decorador @RequestMapping indica la ruta base para todas las peticiones que maneja este controlador
 public class ProjectController {
+    private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
     private final ProjectRepository projectRepository;
+    private final ProjectIngestService projectIngestService;
+    private final ProjectSyncService projectSyncService;
+    private final ProjectStatsService projectStatsService;
+    private final IngestJobService ingestJobService;
+    private final ProjectExportService projectExportService;
+    private final ProjectUpdateService projectUpdateService;
     // Constructor de la clase
     @Autowired
-    public ProjectController(ProjectRepository projectRepository) {
+    public ProjectController(ProjectRepository projectRepository, ProjectIngestService projectIngestService,
+                             ProjectSyncService projectSyncService, ProjectStatsService projectStatsService,
+                             IngestJobService ingestJobService,
+                             ProjectExportService projectExportService, ProjectUpdateService projectUpdateService) {
         this.projectRepository = projectRepository;
+        this.projectUpdateService = projectUpdateService;
+        this.projectIngestService = projectIngestService;
+        this.ingestJobService = ingestJobService;
+        this.projectExportService = projectExportService;
+        this.projectSyncService = projectSyncService;
+        this.projectStatsService = projectStatsService;
     }
 
     // OPERACIONES A REALIZAR
@@ -49,19 +111,33 @@ public class ProjectController {
                     content = { @Content(schema= @Schema())})
 
     })
-    // GET http://localhost:8080/api/projects?page=0&size=10&order=name
+    // GET http://localhost:8080/api/projects?page=0&size=10&order=name[&expand=issues,comments]
+    // GET http://localhost:8080/api/projects?after=<cursor>&size=10[&total=true]
     @GetMapping
-    public List<Project> findAll(
+    public ResponseEntity<MappingJacksonValue> findAll(
             @Parameter(description="Zero-based page index (0..N), default 0")
             @RequestParam(defaultValue="0") Integer page,
             @Parameter(description = "Number of projects per page, default = 10")
             @RequestParam(defaultValue="10") Integer size,
             @Parameter(description = "Sorting criteria in the format: property(asc|desc). Default sort order is ascending. Sorted by the attribute name")
-            @RequestParam(required=false) String order) {
+            @RequestParam(required=false) String order,
+            @Parameter(description = "Relations to include in the response (commits, issues, comments, labels, author, assignee). None of them if omitted", example = "issues,comments")
+            @RequestParam(required=false) List<String> expand,
+            @Parameter(description = "Opaque cursor returned in the X-Next-Cursor header. Enables cursor pagination ordered by id (empty for the first page); page and order are then ignored")
+            @RequestParam(required=false) String after,
+            @Parameter(description = "Whether to return the total number of elements in the X-Total-Count header, default = false")
+            @RequestParam(defaultValue="false") Boolean total,
+            @Parameter(description = "Columns to return, by their name in the response (id is always included). Relations cannot be selected", example = "id,name")
+            @RequestParam(required=false) List<String> fields) throws InvalidCursorException, InvalidFieldsException {
 
-        Page<Project> pageProjects;
+        Slice<Project> pageProjects;
+        Specification<Project> spec = null;
         Pageable paging;
-        if(order != null){
+        if(after != null){
+            // Modo cursor: sin OFFSET, la consulta usa el índice de la clave primaria
+            paging = Cursors.paging(size);
+            spec = Specifications.idAfter(Cursors.decode(after, order));
+        } else if(order != null){
             if(order.startsWith("-")) {
                 paging = PageRequest.of(page, size, Sort.by(order.substring(1)).descending());
             } else {
@@ -70,8 +146,17 @@ public class ProjectController {
         } else {
             paging = PageRequest.of(page, size);
         }
-        pageProjects = projectRepository.findAll(paging);
-        return pageProjects.getContent();
+        if(fields != null){
+            // Proyección: el SELECT solo lee las columnas pedidas, sin entidades ni relaciones
+            Slice<Map<String, Object>> rows = projectRepository.findSlice(spec, paging, Fields.select(Project.class, fields));
+            return ResponseEntity.ok()
+                    .headers(Cursors.headers(rows, after != null, Fields::idOf, total ? projectRepository.count() : null))
+                    .body(new MappingJacksonValue(rows.getContent()));
+        }
+        pageProjects = projectRepository.findSlice(spec, paging);
+        return ResponseEntity.ok()
+                .headers(Cursors.headers(pageProjects, after != null, Project::getId, total ? projectRepository.count() : null))
+                .body(Expansion.apply(pageProjects.getContent(), expand));
     }
 
     @Operation(
@@ -85,14 +170,224 @@ public class ProjectController {
             @ApiResponse(responseCode = "404", description = "Project Not Found",
                     content = { @Content(schema= @Schema())})
     })
-    // GET http://localhost:8080/api/projects/{id}
+    // GET http://localhost:8080/api/projects/{id}[?expand=issues]
     @GetMapping("/{id}")
-    public Project findById(@Parameter(description="ID of the Project to be searched")@PathVariable String id) throws ProjectNotFoundException {
+    public MappingJacksonValue findById(@Parameter(description="ID of the Project to be searched")@PathVariable String id,
+                                        @Parameter(description = "Relations to include in the response (commits, issues, comments, labels, author, assignee). None of them if omitted", example = "issues")
+                                        @RequestParam(required=false) List<String> expand) throws ProjectNotFoundException {
         Optional<Project> project = projectRepository.findById(id);
         if(!project.isPresent()){
             throw new ProjectNotFoundException();
         }
-        return project.get();
+        return Expansion.apply(project.get(), expand);
+    }
+
+    @Operation(
+            summary = "Export a whole project",
+            description = "Streams the project as newline-delimited JSON: one line for the project and one per commit, issue and comment " +
+                    "({\"type\": ..., \"data\": ...}, comments with their issue_id). Memory use does not depend on the size of the project. " +
+                    "The response is gzip-compressed if the client accepts it",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Project Exported",
+                    content = { @Content(mediaType= MediaType.APPLICATION_NDJSON_VALUE)}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/export
+    @GetMapping(value = "/{id}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@Parameter(description="ID of the Project to be exported")@PathVariable String id,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws ProjectNotFoundException {
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // El cuerpo se escribe fuera del hilo de la petición, en su propia transacción de solo lectura
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try {
+                projectExportService.export(id, target);
+            } catch (ProjectNotFoundException e) {
+                // Borrado entre la comprobación y la exportación: la respuesta ya ha empezado, solo queda cortarla
+                throw new IllegalStateException("Project " + id + " was deleted during the export", e);
+            }
+            if (target instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"project-" + id + ".ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip){
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // Accept-Encoding: gzip solo si aparece con q > 0, o "*" con q > 0 cuando gzip no aparece ("gzip;q=0" lo rechaza)
+    // Cualquier otra codificación (x-gzip, br...) se ignora y la respuesta va sin comprimir, que siempre es aceptable
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    @Operation(
+            summary = "Get project statistics",
+            description = "Returns precomputed statistics of a project: commits per author, open and closed issues, mean time to close, " +
+                    "comments per issue and most used labels. They are kept up to date on every write, so reading them does not scan the project",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Project Statistics",
+                    content = { @Content(schema= @Schema(implementation = ProjectStatistics.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/stats[?top=10]
+    @GetMapping("/{id}/stats")
+    public ProjectStatistics stats(@Parameter(description="ID of the Project")@PathVariable String id,
+                                   @Parameter(description = "Number of authors and labels to include in the rankings, default = 10")
+                                   @RequestParam(defaultValue="10") Integer top) throws ProjectNotFoundException {
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        return projectStatsService.get(id, top);
+    }
+
+    @Operation(
+            summary = "Get project contributors",
+            description = "Returns the authors of the project ranked by number of commits, with the dates of their first and last commit. " +
+                    "Without a time window it is read from the precomputed author counts; with since/until the commits of the window are grouped " +
+                    "in a single query over an index, without loading them",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Contributors Ranked",
+                    content = { @Content(array=@ArraySchema(schema= @Schema(implementation = ProjectAuthorStats.class)), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/contributors[?since=2023-01-01T00:00:00Z&until=2024-01-01T00:00:00Z&top=10]
+    @GetMapping("/{id}/contributors")
+    public List<ProjectAuthorStats> contributors(@Parameter(description="ID of the Project")@PathVariable String id,
+                                                 @Parameter(description = "Only commits with authored_date at or after this instant (ISO-8601)", example = "2023-01-01T00:00:00Z")
+                                                 @RequestParam(required=false) Instant since,
+                                                 @Parameter(description = "Only commits with authored_date before this instant (ISO-8601)", example = "2024-01-01T00:00:00Z")
+                                                 @RequestParam(required=false) Instant until,
+                                                 @Parameter(description = "Number of contributors to return, default = 10")
+                                                 @RequestParam(defaultValue="10") Integer top) throws ProjectNotFoundException {
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        return projectStatsService.contributors(id, since, until, top);
+    }
+
+    @Operation(
+            summary = "Get project activity",
+            description = "Returns the number of commits, opened issues, closed issues and comments of the project per day, ISO week (starting on Monday) " +
+                    "or month, in UTC. It is read from precomputed counts updated on every write, so a chart of several years reads one row per bucket. " +
+                    "Buckets without activity are omitted",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Project Activity",
+                    content = { @Content(array=@ArraySchema(schema= @Schema(implementation = ProjectActivity.class)), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid Bucket",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/activity?bucket=week[&since=2022-01-01T00:00:00Z&until=2024-01-01T00:00:00Z]
+    @GetMapping("/{id}/activity")
+    public List<ProjectActivity> activity(@Parameter(description="ID of the Project")@PathVariable String id,
+                                          @Parameter(description = "Size of the buckets: day, week or month, default = day", example = "week")
+                                          @RequestParam(defaultValue="day") String bucket,
+                                          @Parameter(description = "Only buckets containing or after this instant (ISO-8601)", example = "2022-01-01T00:00:00Z")
+                                          @RequestParam(required=false) Instant since,
+                                          @Parameter(description = "Only buckets starting before this instant (ISO-8601)", example = "2024-01-01T00:00:00Z")
+                                          @RequestParam(required=false) Instant until) throws ProjectNotFoundException, InvalidActivityBucketException {
+        ActivityBucket size = ActivityBucket.of(bucket);
+        if(size == null){
+            throw new InvalidActivityBucketException();
+        }
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        return projectStatsService.activity(id, size, since, until);
+    }
+
+    @Operation(
+            summary = "Get issue lifecycle metrics",
+            description = "Returns the 50th, 90th and 99th percentiles of the time to close and of the time to first response (first comment) of the issues " +
+                    "of the project, in seconds, optionally also per label. They are computed from duration histograms kept up to date on every write, " +
+                    "with a relative error below 6%, so neither issues nor comments are loaded",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Issue Lifecycle Metrics",
+                    content = { @Content(schema= @Schema(implementation = IssueLifecycleMetrics.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/lifecycle[?byLabel=true]
+    @GetMapping("/{id}/lifecycle")
+    public IssueLifecycleMetrics lifecycle(@Parameter(description="ID of the Project")@PathVariable String id,
+                                           @Parameter(description = "Whether to include the metrics of each label, default = false")
+                                           @RequestParam(defaultValue="false") Boolean byLabel) throws ProjectNotFoundException {
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        return projectStatsService.lifecycle(id, byLabel);
+    }
+
+    @Operation(
+            summary = "Get project label histogram",
+            description = "Returns how many issues of the project have each label, from the most used to the least. " +
+                    "It is read from the precomputed label counts, without loading the issues",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Label Histogram",
+                    content = { @Content(array=@ArraySchema(schema= @Schema(implementation = ProjectLabelStats.class)), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/{id}/labels[?top=20]
+    @GetMapping("/{id}/labels")
+    public List<ProjectLabelStats> labels(@Parameter(description="ID of the Project")@PathVariable String id,
+                                          @Parameter(description = "Number of labels to return, all of them if omitted")
+                                          @RequestParam(required=false) Integer top) throws ProjectNotFoundException {
+        if(!projectRepository.existsById(id)){
+            throw new ProjectNotFoundException();
+        }
+        return projectStatsService.labels(id, top);
     }
     // Añadir datos de un nuevo proyecto
     @Operation(
@@ -104,6 +399,8 @@ public class ProjectController {
             @ApiResponse(responseCode = "201", description = "Project Created",
                     content = { @Content(schema= @Schema(implementation = Project.class), mediaType= "application/json")}),
             @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Project Already Exists",
                     content = { @Content(schema= @Schema())})
     })
     // POST http://localhost:8080/api/projects
@@ -113,11 +410,104 @@ public class ProjectController {
             description = "Project to be created",
             required = true,
             content = @Content(schema = @Schema(implementation = Project.class)))
-        @Valid @RequestBody Project project){
-        Project createdProject = projectRepository.save(
-                new Project(project.getId(),project.getName(), project.getWebUrl(), project.getCommits(), project.getIssues())
-        );
-        return createdProject;
+        @Valid @RequestBody Project project) throws ProjectAlreadyExistsException {
+        return projectIngestService.create(project);
+    }
+
+    @Operation(
+            summary = "Ingest a whole project",
+            description = "Creates a new project reading the body incrementally, so projects of any size can be inserted with bounded memory. " +
+                    "The fields id, name and web_url must appear before commits and issues",
+            tags = { "project", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Project Ingested",
+                    content = { @Content(schema= @Schema(implementation = IngestSummary.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Project Already Exists",
+                    content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/projects/ingest
+    @PostMapping(value = "/ingest", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public IngestSummary ingest(@io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Project to be ingested, with the same format as in the creation of a project",
+            required = true,
+            content = @Content(schema = @Schema(implementation = Project.class)))
+        InputStream body) throws IOException, InvalidIngestPayloadException, ProjectAlreadyExistsException {
+        // No usamos @RequestBody: el cuerpo se lee en streaming y nunca se construye el grafo completo en memoria
+        return projectIngestService.ingest(body);
+    }
+
+    @Operation(
+            summary = "Ingest a whole project asynchronously",
+            description = "Queues the ingestion of a project and returns immediately with the job, whose status and progress can be polled in the Location returned. " +
+                    "Same format as the synchronous ingestion. If the queue is full the request is rejected with 429 and a Retry-After header",
+            tags = { "project", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Ingest Job Accepted",
+                    content = { @Content(schema= @Schema(implementation = IngestJob.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "429", description = "Ingest Queue Full",
+                    content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/projects/ingest/jobs
+    @PostMapping(value = "/ingest/jobs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<IngestJob>> submitIngest(@io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Project to be ingested, with the same format as in the creation of a project",
+            required = true,
+            content = @Content(schema = @Schema(implementation = Project.class)))
+        InputStream body) throws IngestQueueFullException {
+        // La URI se construye en el hilo de la petición; la respuesta se envía cuando el spool termina de copiar el cuerpo
+        UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}");
+        return ingestJobService.submit(body).thenApply(job -> ResponseEntity.accepted()
+                .location(location.buildAndExpand(job.getId()).toUri())
+                .body(job));
+    }
+
+    @Operation(
+            summary = "Get an ingest job",
+            description = "Returns the status of an asynchronous ingestion and the number of commits, issues and comments persisted so far",
+            tags = { "project", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ingest Job Found",
+                    content = { @Content(schema= @Schema(implementation = IngestJob.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Ingest Job Not Found",
+                    content = { @Content(schema= @Schema())})
+    })
+    // GET http://localhost:8080/api/projects/ingest/jobs/{jobId}
+    @GetMapping("/ingest/jobs/{jobId}")
+    public IngestJob findIngestJob(@Parameter(description="ID of the ingest job")@PathVariable String jobId) throws IngestJobNotFoundException {
+        return ingestJobService.find(jobId);
+    }
+
+    @Operation(
+            summary = "Synchronize a project incrementally",
+            description = "Inserts or updates by ID only the commits, issues and comments that are new or changed since the last synchronization, " +
+                    "leaving the rest of the project untouched. Returns the new watermark (most recent date received), also available as sync_watermark in the project",
+            tags = { "project", "post"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Project Synchronized",
+                    content = { @Content(schema= @Schema(implementation = SyncSummary.class), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Element Belongs To Another Project Or Issue",
+                    content = { @Content(schema= @Schema())})
+    })
+    // POST http://localhost:8080/api/projects/{id}/sync
+    @PostMapping("/{id}/sync")
+    public SyncSummary sync(@Parameter(description="ID of the Project to be synchronized")@PathVariable String id,
+                            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                                    description = "New or changed commits and issues (with their new or changed comments)",
+                                    required = true,
+                                    content = @Content(schema = @Schema(implementation = ProjectDelta.class)))
+                            @RequestBody ProjectDelta delta) throws ProjectNotFoundException, OwnershipConflictException {
+        return projectSyncService.sync(id, delta);
     }
 
     // Añadimos operaciones de DELETE y PUT
@@ -142,38 +532,38 @@ public class ProjectController {
             throw new ProjectNotFoundException();
         }
         projectRepository.deleteById(id);
-        System.out.println("Project with ID " + id + " deleted");
+        projectStatsService.delete(id);
+        log.info("Project with ID {} deleted", id);
     }
 
     @Operation(
             summary = "Update a project",
-            description = "Updates a project by its ID and giving the new data in the body of the request",
+            description = "Updates a project by its ID and giving the new data in the body of the request. Commits, issues and comments are matched by ID " +
+                    "and only the ones that have changed are written; the ones omitted are removed from the project and a collection not sent is left as it is. " +
+                    "Send the version read in the If-Match header to update only if nobody has modified the project since then; " +
+                    "issues and comments can carry their own version in the body",
             tags = { "project", "put"}
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Project Updated",
                     content = { @Content(schema= @Schema(implementation = Project.class), mediaType= "application/json")}),
             @ApiResponse(responseCode = "404", description = "Project Not Found",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "409", description = "Stale Issue Or Comment Version",
+                    content = { @Content(schema= @Schema())}),
+            @ApiResponse(responseCode = "412", description = "Project Modified Since The Version In If-Match",
                     content = { @Content(schema= @Schema())})
     })
-    // PUT http://localhost:8080/api/projects/{id}
+    // PUT http://localhost:8080/api/projects/{id}  (If-Match: "<version>")
     @PutMapping("/{id}")
     public Project update(@Parameter(description="ID of the Project to be updated")@PathVariable String id,
+                          @Parameter(description = "Version of the project the changes are based on")
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                           @io.swagger.v3.oas.annotations.parameters.RequestBody(
                                   description = "Project to be updated",
                                   required = true,
                                   content = @Content(schema = @Schema(implementation = Project.class)))
-                          @Valid @RequestBody Project project) throws ProjectNotFoundException {
-        Optional<Project> existingProject = projectRepository.findById(id);
-        if(!existingProject.isPresent()){
-            throw new ProjectNotFoundException();
-        }
-        existingProject.get().setId(project.getId());
-        existingProject.get().setName(project.getName());
-        existingProject.get().setWebUrl(project.getWebUrl());
-        existingProject.get().setCommits(project.getCommits());
-        existingProject.get().setIssues(project.getIssues());
-        projectRepository.save(existingProject.get()); // Guardamos los cambios
-        return existingProject.get();
+                          @Valid @RequestBody Project project) throws ProjectNotFoundException, PreconditionFailedException, VersionConflictException {
+        return projectUpdateService.update(id, project, Preconditions.expectedVersion(ifMatch));
     }
 }
@@ -0,0 +1,57 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.InvalidSearchQueryException;
+import aiss.gitminer.service.SearchHit;
+import aiss.gitminer.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@Tag(name = "Search", description = "Full-text search API")
+@RestController
+@RequestMapping("/gitminer/search")
+public class SearchController {
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Operation(
+            summary = "Search commits, issues and comments",
+            description = "Returns the commits (title and message), issues (title and description) and comments (body) matching the query, ordered by relevance",
+            tags = { "search", "get"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search Results Listed",
+                    content = { @Content(array = @ArraySchema(schema = @Schema(implementation = SearchHit.class)), mediaType= "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid Search Query",
+                    content = { @Content(schema = @Schema())})
+    })
+    // GET http://localhost:8080/api/search?q=memory leak&type=issue,comment
+    @GetMapping
+    public List<SearchHit> search(@Parameter(description = "Keywords to search for (Lucene query syntax)", example = "memory AND leak")
+                                  @RequestParam String q,
+                                  @Parameter(description = "Types of element to search (commit, issue, comment). All of them if omitted", example = "issue,comment")
+                                  @RequestParam(required = false) List<String> type,
+                                  @Parameter(description = "Zero-based page index (0..N), default 0")
+                                  @RequestParam(defaultValue = "0") Integer page,
+                                  @Parameter(description = "Number of results per page, default = 10")
+                                  @RequestParam(defaultValue = "10") Integer size) throws InvalidSearchQueryException, IOException {
+        return searchService.search(q, type, page, size);
+    }
+}
@@ -1,13 +1,17 @@
 package aiss.gitminer.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -36,4 +40,36 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST); // El segundo parámetro es el código de estado HTTP (400)
         // El cuerpo de la respuesta será un campo "errors" que contendrá una lista de mensajes de error
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    // Las entidades que no pasan por @Valid (por ejemplo en la ingesta en streaming) se validan al persistirlas
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> handleConstraintViolationException(ConstraintViolationException ex){
+        List<String> errors = ex.getConstraintViolations().stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+        Map<String,List<String>> res = new HashMap<>();
+        res.put("errors", errors);
+        return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IngestQueueFullException.class)
+    // @ResponseStatus no permite añadir cabeceras: el cliente necesita Retry-After para saber cuándo reintentar
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> handleIngestQueueFullException(IngestQueueFullException ex){
+        Map<String,List<String>> res = new HashMap<>();
+        res.put("errors", List.of("Ingest queue is full, retry later"));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(res);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    // Otra petición ha modificado la misma fila entre la lectura y la escritura (@Version): el cliente debe releer y reintentar
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex){
+        Map<String,List<String>> res = new HashMap<>();
+        res.put("errors", List.of("Concurrent modification of " + ex.getPersistentClassName() + " " + ex.getIdentifier() + ", retry with the current version"));
+        return new ResponseEntity<>(res, HttpStatus.CONFLICT);
+    }
 }
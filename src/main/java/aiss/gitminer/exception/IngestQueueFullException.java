@@ -0,0 +1,19 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Se responde con 429 y la cabecera Retry-After (ver GlobalExceptionHandler)
+@ResponseStatus(code = HttpStatus.TOO_MANY_REQUESTS, reason= "Ingest queue is full")
+public class IngestQueueFullException extends Exception {
+
+    private final int retryAfterSeconds;
+
+    public IngestQueueFullException(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
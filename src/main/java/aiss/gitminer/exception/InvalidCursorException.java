@@ -0,0 +1,9 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason= "Invalid pagination cursor")
+// Se lanza si el cursor no se puede decodificar o si se combina con un criterio de ordenación (el cursor siempre ordena por id)
+public class InvalidCursorException extends Exception {
+}
@@ -0,0 +1,9 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason= "Invalid fields")
+// Se lanza si ?fields= pide un campo que no existe o una relación (solo se pueden pedir columnas propias de la entidad)
+public class InvalidFieldsException extends Exception {
+}
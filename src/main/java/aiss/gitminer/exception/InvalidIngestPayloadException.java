@@ -0,0 +1,16 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason= "Invalid ingest payload")
+public class InvalidIngestPayloadException extends Exception {
+
+    public InvalidIngestPayloadException(String message) {
+        super(message);
+    }
+
+    public InvalidIngestPayloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
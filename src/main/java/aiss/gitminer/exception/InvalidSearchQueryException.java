@@ -0,0 +1,12 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason= "Invalid search query")
+public class InvalidSearchQueryException extends Exception {
+
+    public InvalidSearchQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT, reason= "Element belongs to another project or issue")
+// Se lanza si una sincronización trae un commit, issue o comentario que ya existe bajo otro proyecto o issue
+public class OwnershipConflictException extends Exception {
+
+    public OwnershipConflictException(String message) {
+        super(message);
+    }
+}
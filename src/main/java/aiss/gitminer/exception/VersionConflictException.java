@@ -0,0 +1,13 @@
+package aiss.gitminer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT, reason= "Stale version")
+// Se lanza si se intenta modificar una issue o comentario partiendo de una versión que ya no es la actual
+public class VersionConflictException extends Exception {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
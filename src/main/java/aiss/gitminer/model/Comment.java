@@ -1,6 +1,9 @@
 
 package aiss.gitminer.model;
 
+import aiss.gitminer.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -8,9 +11,16 @@ import javax.annotation.Generated;
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 
 @Entity // El decorador @Entity indica que esta clase es una entidad JPA, JPA es Java Persistence API y es la API de Java para la persistencia de datos
-@Table(name = "Comment") // El decorador @Table indica el nombre de la tabla en la base de datos
+@EntityListeners(SearchIndexListener.class) // Mantiene el índice de búsqueda sincronizado
+@Table(name = "Comment", indexes = {
+        // Los filtros since/until y los comentarios de una issue se resuelven como rangos sobre estos índices
+        @Index(name = "idx_comment_created_at", columnList = "createdAt"),
+        @Index(name = "idx_comment_issue_created_at", columnList = "issueId, createdAt")
+}) // El decorador @Table indica el nombre de la tabla en la base de datos
+@JsonFilter("expand") // Permite omitir en la respuesta las relaciones que el cliente no ha pedido con ?expand=
 public class Comment {
 
     @Id // El @Id ya implica que es unique y not empty
@@ -25,15 +35,26 @@ public class Comment {
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     // name es el nombre de la columna en la tabla de la base de datos Comment
     // referencedColumnName es el nombre de la columna en la tabla de la base de datos User que equivale a la columna en Comment
-    @OneToOne(cascade=CascadeType.ALL) // Esto significa que las operaciones que se hacen sobre Comment se harán también sobre User
+    @ManyToOne(fetch = FetchType.LAZY) // Un usuario escribe muchos comentarios; los usuarios se guardan aparte (UserService), sin cascada
     private User author;
 
     @JsonProperty("created_at")
-    @NotEmpty(message = "The field created_at cannot be empty.")
-    private String createdAt;
+    @NotNull(message = "The field created_at cannot be empty.")
+    private Instant createdAt;
     @JsonProperty("updated_at")
-    private String updatedAt;
+    private Instant updatedAt;
 
+    // Clave ajena hacia Issue mapeada también en el lado del comentario para poder insertarlo sin cargar la issue
+    @JsonIgnore
+    @Column(name = "issueId")
+    private String issueId;
+
+    // Control de concurrencia optimista: Hibernate la incrementa en cada actualización y la comprueba al escribir
+    // En el JSON se devuelve como "version"; la que envía el cliente va a expectedVersion y solo sirve para detectar conflictos
+    @Version
+    private Long version;
+    @Transient
+    private Long expectedVersion;
 
     public String getId() {
         return id;
@@ -59,22 +80,45 @@ public class Comment {
         this.author = author;
     }
 
-    public String getCreatedAt() {
+    public Instant getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
+    public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
 
-    public String getUpdatedAt() {
+    public Instant getUpdatedAt() {
         return updatedAt;
     }
 
-    public void setUpdatedAt(String updatedAt) {
+    public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
 
+    public String getIssueId() {
+        return issueId;
+    }
+
+    public void setIssueId(String issueId) {
+        this.issueId = issueId;
+    }
+
+    @JsonProperty("version")
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonProperty("version")
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+
+    @JsonIgnore
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
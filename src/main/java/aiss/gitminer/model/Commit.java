@@ -1,16 +1,30 @@
 package aiss.gitminer.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import aiss.gitminer.service.SearchIndexListener;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 
 @Entity
-@Table(name = "Commit")
+@EntityListeners(SearchIndexListener.class) // Mantiene el índice de búsqueda sincronizado
+@Table(name = "Commit", indexes = {
+        // Los filtros since/until y la actividad de un proyecto se resuelven como rangos sobre estos índices
+        @Index(name = "idx_commit_authored_date", columnList = "authoredDate"),
+        @Index(name = "idx_commit_project_authored_date", columnList = "projectId, authoredDate"),
+        // Clasificación de contribuidores: el GROUP BY de una ventana de tiempo se resuelve solo con el índice (sin leer la tabla)
+        // y el primer/último commit de un autor es un rango dentro de (projectId, authorName)
+        @Index(name = "idx_commit_project_date_author", columnList = "projectId, authoredDate, authorName"),
+        @Index(name = "idx_commit_project_author_date", columnList = "projectId, authorName, authoredDate")
+})
 public class Commit {
 
     @Id
@@ -28,12 +42,17 @@ public class Commit {
     @JsonProperty("author_email")
     private String authorEmail;
     @JsonProperty("authored_date")
-    @NotEmpty(message = "Author date cannot be empty.")
-    private String authoredDate;
+    @NotNull(message = "Author date cannot be empty.")
+    private Instant authoredDate;
     @JsonProperty("web_url")
     @NotEmpty(message = "URL cannot be empty.")
     private String webUrl;
 
+    // Clave ajena hacia Project mapeada también en el lado del commit para poder insertarlo sin cargar el proyecto
+    @JsonIgnore
+    @Column(name = "projectId")
+    private String projectId;
+
     public String getId() {
         return id;
     }
@@ -74,11 +93,11 @@ public class Commit {
         this.authorEmail = authorEmail;
     }
 
-    public String getAuthoredDate() {
+    public Instant getAuthoredDate() {
         return authoredDate;
     }
 
-    public void setAuthoredDate(String authoredDate) {
+    public void setAuthoredDate(Instant authoredDate) {
         this.authoredDate = authoredDate;
     }
 
@@ -90,6 +109,14 @@ public class Commit {
         this.webUrl = webUrl;
     }
 
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -1,17 +1,36 @@
 
 package aiss.gitminer.model;
 
+import aiss.gitminer.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.annotation.Generated;
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name = "Issue")
+@EntityListeners(SearchIndexListener.class) // Mantiene el índice de búsqueda sincronizado
+@Table(name = "Issue", indexes = {
+        // Los filtros since/until se resuelven como rangos sobre estos índices
+        @Index(name = "idx_issue_created_at", columnList = "createdAt"),
+        @Index(name = "idx_issue_updated_at", columnList = "updatedAt"),
+        @Index(name = "idx_issue_project_created_at", columnList = "projectId, createdAt"),
+        // Filtros combinados de /issues: el estado va primero porque casi siempre acompaña a los demás filtros
+        @Index(name = "idx_issue_state_author", columnList = "state, author_id"),
+        @Index(name = "idx_issue_state_assignee", columnList = "state, assignee_id"),
+        @Index(name = "idx_issue_state_created_at", columnList = "state, createdAt"),
+        @Index(name = "idx_issue_author", columnList = "author_id"),
+        @Index(name = "idx_issue_assignee", columnList = "assignee_id"),
+        @Index(name = "idx_issue_votes", columnList = "votes")
+})
+@JsonFilter("expand") // Permite omitir en la respuesta las relaciones que el cliente no ha pedido con ?expand=
 public class Issue {
 
     @Id // Implica que el campo será único y no nulo en la base de datos
@@ -25,24 +44,28 @@ public class Issue {
     @JsonProperty("state")
     private String state;
     @JsonProperty("created_at")
-    private String createdAt;
+    private Instant createdAt;
     @JsonProperty("updated_at")
-    private String updatedAt;
+    private Instant updatedAt;
     @JsonProperty("closed_at")
-    private String closedAt;
+    private Instant closedAt;
     @JsonProperty("labels")
     @ElementCollection // Usamos este decorador para indicar que el campo es una colección de elementos
     // JPA los guardará en una tabla separada
+    // El índice (labels, issue_id) resuelve los filtros por etiqueta sin recorrer la tabla ni las issues
+    @CollectionTable(name = "issue_labels", joinColumns = @JoinColumn(name = "issue_id"), indexes = {
+            @Index(name = "idx_issue_labels_label", columnList = "labels, issue_id")
+    })
     private List<String> labels;
     @JsonProperty("author")
     //@NotEmpty(message = "The author of the issue cannot be empty")
     @JoinColumn(name = "author_id",referencedColumnName = "id")
-    @OneToOne(cascade=CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY) // Varias issues comparten autor; los usuarios se guardan aparte (UserService), sin cascada
     private User author;
     @JsonProperty("assignee")
     @JoinColumn(name = "assignee_id",referencedColumnName = "id")
-    @OneToOne(cascade=CascadeType.ALL) // Esto significa que las operaciones que se hacen sobre Issue se harán también sobre User
-    // @OneToOne indica la relación entre Issue y User
+    @ManyToOne(fetch = FetchType.LAZY)
+    // @ManyToOne indica la relación entre Issue y User: un mismo usuario puede estar asignado a muchas issues
     private User assignee;
     @JsonProperty("votes")
     private Integer votes;
@@ -51,6 +74,24 @@ public class Issue {
     @JoinColumn(name = "issueId") // El nombre de la columna en la tabla de la base de datos Comment
     private List<Comment> comments;
 
+    // Clave ajena hacia Project mapeada también en el lado de la issue para poder insertarla sin cargar el proyecto
+    @JsonIgnore
+    @Column(name = "projectId")
+    private String projectId;
+
+    // Control de concurrencia optimista: Hibernate la incrementa en cada actualización y la comprueba al escribir
+    // En el JSON se devuelve como "version"; la que envía el cliente va a expectedVersion y solo sirve para detectar conflictos
+    @Version
+    private Long version;
+    @Transient
+    private Long expectedVersion;
+
+    // Fecha del primer comentario, para el tiempo hasta la primera respuesta sin consultar los comentarios
+    // La mantienen las escrituras de comentarios; no cuenta como modificación, así que no cambia la versión de la issue
+    @JsonIgnore
+    @OptimisticLock(excluded = true)
+    private Instant firstCommentAt;
+
     public String getId() {
         return id;
     }
@@ -83,27 +124,27 @@ public class Issue {
         this.state = state;
     }
 
-    public String getCreatedAt() {
+    public Instant getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
+    public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
 
-    public String getUpdatedAt() {
+    public Instant getUpdatedAt() {
         return updatedAt;
     }
 
-    public void setUpdatedAt(String updatedAt) {
+    public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
 
-    public String getClosedAt() {
+    public Instant getClosedAt() {
         return closedAt;
     }
 
-    public void setClosedAt(String closedAt) {
+    public void setClosedAt(Instant closedAt) {
         this.closedAt = closedAt;
     }
 
@@ -147,6 +188,37 @@ public class Issue {
         this.comments = comments;
     }
 
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    @JsonProperty("version")
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonProperty("version")
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+
+    @JsonIgnore
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public Instant getFirstCommentAt() {
+        return firstCommentAt;
+    }
+
+    public void setFirstCommentAt(Instant firstCommentAt) {
+        this.firstCommentAt = firstCommentAt;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -1,16 +1,23 @@
 
 package aiss.gitminer.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 
 
 @Entity // El decorador @Entity indica que esta clase es una entidad JPA, JPA es Java Persistence API y es la API de Java para la persistencia de datos
 @Table(name = "Project")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects") // Solo se cachean los datos del proyecto, no sus colecciones
+@JsonFilter("expand") // Permite omitir en la respuesta las relaciones que el cliente no ha pedido con ?expand=
 public class Project {
 
     @Id
@@ -36,9 +43,21 @@ public class Project {
     @JoinColumn(name = "projectId")
     private List<Issue> issues;
 
+    // Marca de agua de la sincronización incremental: fecha más reciente de lo recibido en /sync
+    // Solo la calcula el servidor, por eso es de solo lectura en el JSON
+    @JsonProperty(value = "sync_watermark", access = JsonProperty.Access.READ_ONLY)
+    private Instant syncWatermark;
+
+    // Control de concurrencia optimista: Hibernate la incrementa en cada actualización y la comprueba al escribir
+    // En el JSON se devuelve como "version"; la que envía el cliente va a expectedVersion y solo sirve para detectar conflictos
+    @Version
+    private Long version;
+    @Transient
+    private Long expectedVersion;
+
+    // Las colecciones quedan a null si no vienen en el JSON: en un PUT eso significa "no tocar", no "vaciar"
+    // (Hibernate las sustituye por sus propias colecciones al cargar la entidad)
     public Project() {
-        commits = new ArrayList<>();
-        issues = new ArrayList<>();
     }
 
     // Constructor (ya que se usa en peticiones POST)
@@ -90,6 +109,29 @@ public class Project {
         this.issues = issues;
     }
 
+    public Instant getSyncWatermark() {
+        return syncWatermark;
+    }
+
+    public void setSyncWatermark(Instant syncWatermark) {
+        this.syncWatermark = syncWatermark;
+    }
+
+    @JsonProperty("version")
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonProperty("version")
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+
+    @JsonIgnore
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
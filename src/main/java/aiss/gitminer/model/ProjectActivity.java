@@ -0,0 +1,114 @@
+package aiss.gitminer.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Actividad de un proyecto en un intervalo (día, semana o mes, en UTC) (agregado incremental)
+// La clave primaria (projectId, bucket, bucketStart) sirve para leer un rango de intervalos ya ordenado
+@Entity
+@Table(name = "ProjectActivity")
+@IdClass(ProjectActivity.Key.class)
+public class ProjectActivity {
+
+    @Id
+    @JsonIgnore
+    private String projectId;
+    @Id
+    @JsonIgnore
+    private String bucket;
+    @Id
+    @JsonProperty("bucket_start")
+    private LocalDate bucketStart;
+    @JsonProperty("commits")
+    private long commits;
+    @JsonProperty("issues_opened")
+    private long issuesOpened;
+    @JsonProperty("issues_closed")
+    private long issuesClosed;
+    @JsonProperty("comments")
+    private long comments;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public void setCommits(long commits) {
+        this.commits = commits;
+    }
+
+    public long getIssuesOpened() {
+        return issuesOpened;
+    }
+
+    public void setIssuesOpened(long issuesOpened) {
+        this.issuesOpened = issuesOpened;
+    }
+
+    public long getIssuesClosed() {
+        return issuesClosed;
+    }
+
+    public void setIssuesClosed(long issuesClosed) {
+        this.issuesClosed = issuesClosed;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void setComments(long comments) {
+        this.comments = comments;
+    }
+
+    public static class Key implements Serializable {
+        private String projectId;
+        private String bucket;
+        private LocalDate bucketStart;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(projectId, key.projectId) && Objects.equals(bucket, key.bucket)
+                    && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, bucket, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package aiss.gitminer.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+// Número de commits de cada autor en un proyecto y fechas de su primer y último commit (agregado incremental)
+@Entity
+@Table(name = "ProjectAuthorStats", indexes = {
+        @Index(name = "idx_author_stats_project_commits", columnList = "projectId, commits")
+})
+@IdClass(ProjectAuthorStats.Key.class)
+public class ProjectAuthorStats {
+
+    @Id
+    @JsonIgnore
+    private String projectId;
+    @Id
+    @JsonProperty("author_name")
+    private String authorName;
+    @JsonProperty("commits")
+    private long commits;
+    @JsonProperty("first_commit_at")
+    private Instant firstCommitAt;
+    @JsonProperty("last_commit_at")
+    private Instant lastCommitAt;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public void setCommits(long commits) {
+        this.commits = commits;
+    }
+
+    public Instant getFirstCommitAt() {
+        return firstCommitAt;
+    }
+
+    public void setFirstCommitAt(Instant firstCommitAt) {
+        this.firstCommitAt = firstCommitAt;
+    }
+
+    public Instant getLastCommitAt() {
+        return lastCommitAt;
+    }
+
+    public void setLastCommitAt(Instant lastCommitAt) {
+        this.lastCommitAt = lastCommitAt;
+    }
+
+    public static class Key implements Serializable {
+        private String projectId;
+        private String authorName;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(projectId, key.projectId) && Objects.equals(authorName, key.authorName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, authorName);
+        }
+    }
+}
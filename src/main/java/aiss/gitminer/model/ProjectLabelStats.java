@@ -0,0 +1,72 @@
+package aiss.gitminer.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Número de issues con cada etiqueta en un proyecto (agregado incremental)
+@Entity
+@Table(name = "ProjectLabelStats", indexes = {
+        @Index(name = "idx_label_stats_project_issues", columnList = "projectId, issues")
+})
+@IdClass(ProjectLabelStats.Key.class)
+public class ProjectLabelStats {
+
+    @Id
+    @JsonIgnore
+    private String projectId;
+    @Id
+    @JsonProperty("label")
+    private String label;
+    @JsonProperty("issues")
+    private long issues;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getIssues() {
+        return issues;
+    }
+
+    public void setIssues(long issues) {
+        this.issues = issues;
+    }
+
+    public static class Key implements Serializable {
+        private String projectId;
+        private String label;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(projectId, key.projectId) && Objects.equals(label, key.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, label);
+        }
+    }
+}
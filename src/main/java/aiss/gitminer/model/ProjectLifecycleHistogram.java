@@ -0,0 +1,88 @@
+package aiss.gitminer.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Número de issues de un proyecto en cada intervalo de duración (tiempo hasta el cierre o hasta la primera respuesta),
+// para todas las issues (label vacía) y por etiqueta (agregado incremental, ver LifecycleHistogram)
+// La clave primaria empieza por (projectId, label) para leer el histograma del proyecto o de todas sus etiquetas con un rango
+@Entity
+@Table(name = "ProjectLifecycleHistogram")
+@IdClass(ProjectLifecycleHistogram.Key.class)
+public class ProjectLifecycleHistogram {
+
+    @Id
+    private String projectId;
+    @Id
+    private String label;
+    @Id
+    private String metric;
+    @Id
+    private int bucket;
+    private long issues;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public int getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(int bucket) {
+        this.bucket = bucket;
+    }
+
+    public long getIssues() {
+        return issues;
+    }
+
+    public void setIssues(long issues) {
+        this.issues = issues;
+    }
+
+    public static class Key implements Serializable {
+        private String projectId;
+        private String label;
+        private String metric;
+        private int bucket;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return bucket == key.bucket && Objects.equals(projectId, key.projectId) && Objects.equals(label, key.label)
+                    && Objects.equals(metric, key.metric);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, label, metric, bucket);
+        }
+    }
+}
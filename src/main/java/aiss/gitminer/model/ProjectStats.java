@@ -0,0 +1,78 @@
+package aiss.gitminer.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// Agregados de un proyecto mantenidos de forma incremental en cada escritura (ProjectStatsService)
+// Leer las estadísticas es leer esta fila, sin recorrer commits ni issues
+@Entity
+@Table(name = "ProjectStats")
+public class ProjectStats {
+
+    @Id
+    private String projectId;
+    private long commits;
+    private long openIssues;
+    private long closedIssues;
+    // Suma y número de duraciones (closed_at - created_at) de las issues cerradas con ambas fechas
+    private long closedDurationSeconds;
+    private long closedDurationCount;
+    private long comments;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public void setCommits(long commits) {
+        this.commits = commits;
+    }
+
+    public long getOpenIssues() {
+        return openIssues;
+    }
+
+    public void setOpenIssues(long openIssues) {
+        this.openIssues = openIssues;
+    }
+
+    public long getClosedIssues() {
+        return closedIssues;
+    }
+
+    public void setClosedIssues(long closedIssues) {
+        this.closedIssues = closedIssues;
+    }
+
+    public long getClosedDurationSeconds() {
+        return closedDurationSeconds;
+    }
+
+    public void setClosedDurationSeconds(long closedDurationSeconds) {
+        this.closedDurationSeconds = closedDurationSeconds;
+    }
+
+    public long getClosedDurationCount() {
+        return closedDurationCount;
+    }
+
+    public void setClosedDurationCount(long closedDurationCount) {
+        this.closedDurationCount = closedDurationCount;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void setComments(long comments) {
+        this.comments = comments;
+    }
+}
@@ -4,7 +4,11 @@ package aiss.gitminer.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.annotation.Generated;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
@@ -13,10 +17,14 @@ import javax.validation.constraints.NotNull;
 
 @Entity
 @Table(name = "GMUser")     // Watch out: User is a reserved keyword in H2
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users") // El mismo usuario aparece en miles de issues y comentarios: caché de segundo nivel (application.conf)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Los autores se cargan de forma perezosa: no serializamos los campos del proxy
 public class User {
 
     @Id
     @JsonProperty("id")
+    @NotEmpty(message = "The id of the user cannot be empty")
     private String id;
     @JsonProperty("username")
     @NotEmpty(message = "The username cannot be empty")
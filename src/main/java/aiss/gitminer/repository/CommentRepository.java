@@ -3,17 +3,27 @@ package aiss.gitminer.repository;
 import aiss.gitminer.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, String> {
+public interface CommentRepository extends SliceRepository<Comment, String> {
 
     @Query(value = "SELECT * FROM comment WHERE issue_Id = :issueId",
             nativeQuery = true)
     Page<Comment> findCommentsByIssueId(@Param("issueId") String issueId, Pageable pageable);
 
-}
+    // Exportación: todos los comentarios de las issues de un proyecto, agrupados por issue
+    @Query("SELECT c FROM Comment c WHERE c.issueId IN (SELECT i.id FROM Issue i WHERE i.projectId = :projectId) ORDER BY c.issueId, c.id")
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<Comment> streamByProjectId(@Param("projectId") String projectId);
 
+}
@@ -1,13 +1,24 @@
 package aiss.gitminer.repository;
 
 import aiss.gitminer.model.Commit;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface CommitRepository extends JpaRepository<Commit, String> {
+public interface CommitRepository extends SliceRepository<Commit, String> {
     // Este repositorio hereda de JpaRepository, lo que le proporciona métodos CRUD básicos como findAll(), findById(), save(), deleteById(), etc.
     // Aquí puedes definir métodos personalizados para consultas específicas si es necesario
     // Por ejemplo, puedes buscar commits por autor, fecha, etc.
     // public List<Commit> findByAuthorName(String authorName);
+    // Los listados usan findSlice(Specification, Pageable) de SliceRepository: filtros dinámicos sin count(*)
+
+    // Exportación: cursor de base de datos en lugar de una lista; debe consumirse dentro de una transacción y cerrarse
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<Commit> streamByProjectIdOrderById(String projectId);
 }
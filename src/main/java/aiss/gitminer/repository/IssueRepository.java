@@ -4,16 +4,28 @@ import aiss.gitminer.model.Comment;
 import aiss.gitminer.model.Issue;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface IssueRepository extends JpaRepository<Issue, String> {
+public interface IssueRepository extends SliceRepository<Issue, String> {
 
     //Definimos los métodos para el filtrado de las issues por estado y autorId
-    Page<Issue> findByState(String state, Pageable pageable);
-    Page<Issue> findByAuthorId(String authorId, Pageable pageable);
-    Page<Issue> findByStateAndAuthorId(String state, String authorId, Pageable pageable);
+    // Devuelven Slice para no lanzar un count(*) en cada petición
+    Slice<Issue> findByState(String state, Pageable pageable);
+    Slice<Issue> findByAuthorId(String authorId, Pageable pageable);
+    Slice<Issue> findByStateAndAuthorId(String state, String authorId, Pageable pageable);
+
+    // Exportación: cursor de base de datos en lugar de una lista; debe consumirse dentro de una transacción y cerrarse
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<Issue> streamByProjectIdOrderById(String projectId);
 }
@@ -0,0 +1,14 @@
+package aiss.gitminer.repository;
+
+import aiss.gitminer.model.ProjectAuthorStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectAuthorStatsRepository extends SliceRepository<ProjectAuthorStats, ProjectAuthorStats.Key> {
+
+    // Autores con más commits del proyecto (índice projectId, commits)
+    List<ProjectAuthorStats> findByProjectIdOrderByCommitsDesc(String projectId, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package aiss.gitminer.repository;
+
+import aiss.gitminer.model.ProjectLabelStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectLabelStatsRepository extends SliceRepository<ProjectLabelStats, ProjectLabelStats.Key> {
+
+    // Etiquetas más usadas del proyecto (índice projectId, issues)
+    List<ProjectLabelStats> findByProjectIdOrderByIssuesDesc(String projectId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package aiss.gitminer.repository;
+
+import aiss.gitminer.model.ProjectLifecycleHistogram;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectLifecycleHistogramRepository extends SliceRepository<ProjectLifecycleHistogram, ProjectLifecycleHistogram.Key> {
+
+    // Histogramas de todas las issues (label vacía) o de una etiqueta: rango sobre la clave primaria
+    List<ProjectLifecycleHistogram> findByProjectIdAndLabelOrderByMetricAscBucketAsc(String projectId, String label);
+
+    // Histogramas del proyecto y de todas sus etiquetas
+    List<ProjectLifecycleHistogram> findByProjectIdOrderByLabelAscMetricAscBucketAsc(String projectId);
+}
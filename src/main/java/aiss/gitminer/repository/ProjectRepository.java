@@ -1,9 +1,8 @@
 package aiss.gitminer.repository;
 
 import aiss.gitminer.model.Project;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, String> {
+public interface ProjectRepository extends SliceRepository<Project, String> {
 }
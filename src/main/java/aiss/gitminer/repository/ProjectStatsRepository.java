@@ -0,0 +1,8 @@
+package aiss.gitminer.repository;
+
+import aiss.gitminer.model.ProjectStats;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectStatsRepository extends SliceRepository<ProjectStats, String> {
+}
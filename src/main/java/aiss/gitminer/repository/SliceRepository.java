@@ -0,0 +1,23 @@
+package aiss.gitminer.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+// Repositorio base de la aplicación: añade consultas dinámicas (Specification) que devuelven Slice,
+// es decir, sin el count(*) que lanza JpaSpecificationExecutor#findAll(Specification, Pageable)
+@NoRepositoryBean
+public interface SliceRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    Slice<T> findSlice(@Nullable Specification<T> spec, Pageable pageable);
+
+    // Igual que findSlice, pero el SELECT solo incluye los atributos pedidos (nombre en la respuesta -> atributo de la entidad)
+    // Cada fila es un mapa con esos nombres; no se cargan entidades, relaciones ni columnas no pedidas
+    Slice<Map<String, Object>> findSlice(@Nullable Specification<T> spec, Pageable pageable, Map<String, String> selection);
+}
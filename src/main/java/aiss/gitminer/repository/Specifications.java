@@ -0,0 +1,90 @@
+package aiss.gitminer.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// Filtros reutilizables para las consultas dinámicas de los listados
+// Cada método devuelve null si no hay valor, y Specification.where/and ignoran los null
+public final class Specifications {
+
+    private Specifications() {
+    }
+
+    // Paginación por cursor: elementos posteriores al último id visto
+    public static <T> Specification<T> idAfter(String id) {
+        return id == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    // Rango de tiempo [since, until) sobre un atributo Instant indexado
+    public static <T> Specification<T> since(String attribute, Instant since) {
+        return since == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(Specifications.<Instant>path(root, attribute), since);
+    }
+
+    public static <T> Specification<T> until(String attribute, Instant until) {
+        return until == null ? null : (root, query, cb) -> cb.lessThan(Specifications.<Instant>path(root, attribute), until);
+    }
+
+    // Rango cerrado [min, max] sobre un atributo numérico
+    public static <T> Specification<T> atLeast(String attribute, Integer min) {
+        return min == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(Specifications.<Integer>path(root, attribute), min);
+    }
+
+    public static <T> Specification<T> atMost(String attribute, Integer max) {
+        return max == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(Specifications.<Integer>path(root, attribute), max);
+    }
+
+    // Pertenencia a una colección de valores (@ElementCollection); se traduce en un subquery, sin duplicar filas
+    public static <T> Specification<T> member(String attribute, String value) {
+        return value == null ? null : (root, query, cb) -> cb.isMember(value, root.<Collection<String>>get(attribute));
+    }
+
+    // Tiene al menos uno de los valores: id IN (SELECT issue_id FROM issue_labels WHERE labels IN (...)), resuelto con el índice de la etiqueta
+    public static <T> Specification<T> anyMember(String attribute, Collection<String> values) {
+        return values == null || values.isEmpty() ? null : (root, query, cb) -> {
+            Subquery<Object> owners = query.subquery(Object.class);
+            Root<?> owner = owners.from(root.getJavaType());
+            owners.select(owner.get("id")).where(owner.join(attribute).in(values));
+            return root.get("id").in(owners);
+        };
+    }
+
+    // Tiene todos los valores: mismo subquery agrupado por id, quedándose con los que tienen tantas etiquetas distintas como se piden
+    public static <T> Specification<T> allMembers(String attribute, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        Set<String> distinct = new HashSet<>(values);
+        return (root, query, cb) -> {
+            Subquery<Object> owners = query.subquery(Object.class);
+            Root<?> owner = owners.from(root.getJavaType());
+            Join<?, String> value = owner.join(attribute);
+            owners.select(owner.get("id"))
+                    .where(value.in(distinct))
+                    .groupBy(owner.get("id"))
+                    .having(cb.equal(cb.countDistinct(value), (long) distinct.size()));
+            return root.get("id").in(owners);
+        };
+    }
+
+    // Admite atributos anidados, por ejemplo "author.id" (Hibernate lo resuelve con la clave ajena, sin join)
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        return value == null ? null : (root, query, cb) -> cb.equal(path(root, attribute), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <Y> Path<Y> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        return (Path<Y>) path;
+    }
+}
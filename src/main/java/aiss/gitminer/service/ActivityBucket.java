@@ -0,0 +1,40 @@
+package aiss.gitminer.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+// Tamaños de intervalo de la actividad de un proyecto; las semanas empiezan en lunes (ISO-8601)
+public enum ActivityBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Nombre guardado en project_activity.bucket y aceptado en ?bucket=
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Primer día del intervalo que contiene el día dado
+    public LocalDate start(LocalDate day) {
+        switch (this) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return day.withDayOfMonth(1);
+            default:
+                return day;
+        }
+    }
+
+    // null si el nombre no corresponde a ningún intervalo
+    public static ActivityBucket of(String key) {
+        for (ActivityBucket bucket : values()) {
+            if (bucket.key().equalsIgnoreCase(key)) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+// Trabajo de ingesta asíncrona: estado, progreso (contadores de la ingesta en curso) y error si ha fallado
+// Lo modifica solo el hilo que lo ejecuta; las peticiones de estado lo leen (campos volatile)
+public class IngestJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    @JsonProperty("id")
+    private final String id;
+    @JsonProperty("status")
+    private volatile Status status = Status.QUEUED;
+    @JsonProperty("progress")
+    private final IngestSummary progress = new IngestSummary();
+    @JsonProperty("error")
+    private volatile String error;
+    @JsonProperty("submitted_at")
+    private final Instant submittedAt = Instant.now();
+    @JsonProperty("started_at")
+    private volatile Instant startedAt;
+    @JsonProperty("finished_at")
+    private volatile Instant finishedAt;
+
+    IngestJob(String id) {
+        this.id = id;
+    }
+
+    void start() {
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    void succeed() {
+        this.finishedAt = Instant.now();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public IngestSummary getProgress() {
+        return progress;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
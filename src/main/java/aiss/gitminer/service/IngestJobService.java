@@ -0,0 +1,229 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.IngestJobNotFoundException;
+import aiss.gitminer.exception.IngestQueueFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Ingesta asíncrona: el cuerpo se vuelca a un fichero temporal y se encola el trabajo. La copia la hace un pool propio (spool),
+// no el hilo de Tomcat, para que un cliente lento no retenga un hilo de petición. Un pool fijo de workers consume una cola acotada;
+// si la cola o el spool están llenos se rechaza el trabajo (429) en lugar de acumular memoria o hilos
+// El estado de los trabajos solo vive en memoria: al parar se marcan como fallidos los que no han llegado a empezar y se borran
+// sus ficheros, y al arrancar se limpian los ficheros que hubiera dejado una parada brusca
+@Service
+public class IngestJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestJobService.class);
+    private static final String SPOOL_PREFIX = "ingest-";
+    private static final String SPOOL_SUFFIX = ".json";
+
+    private final ProjectIngestService projectIngestService;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor spooler;
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+    private final int retryAfterSeconds;
+    private final Duration retention;
+    // Directorio de los cuerpos pendientes; vacío = directorio temporal del sistema
+    private final String spoolDir;
+    private final Duration shutdownTimeout;
+
+    @Autowired
+    public IngestJobService(ProjectIngestService projectIngestService, MeterRegistry meterRegistry,
+                            @Value("${gitminer.ingest.async.workers:2}") int workers,
+                            @Value("${gitminer.ingest.async.queue-capacity:16}") int queueCapacity,
+                            @Value("${gitminer.ingest.async.retry-after-seconds:5}") int retryAfterSeconds,
+                            @Value("${gitminer.ingest.async.job-retention-minutes:60}") int retentionMinutes,
+                            @Value("${gitminer.ingest.async.spool-dir:}") String spoolDir,
+                            @Value("${gitminer.ingest.async.spool-threads:4}") int spoolThreads,
+                            @Value("${gitminer.ingest.async.shutdown-timeout-seconds:30}") int shutdownTimeoutSeconds) {
+        this.projectIngestService = projectIngestService;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.spoolDir = spoolDir;
+        this.shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ingest-worker-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Sin cola propia: si todos los hilos del spool están copiando cuerpos, la petición se rechaza
+        this.spooler = new ThreadPoolExecutor(spoolThreads, spoolThreads, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("ingest-spool-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Tamaño de la cola, trabajos activos y completados en /actuator/prometheus
+        new ExecutorServiceMetrics(executor, "ingest", Tags.empty()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(spooler, "ingest.spool", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    // Ficheros de una ejecución anterior que terminó sin llegar a procesarlos; sus trabajos ya no existen
+    // Solo se limpia el directorio configurado: en el temporal del sistema podría haber ficheros de otras instancias
+    @PostConstruct
+    public void sweepSpool() throws IOException {
+        if (spoolDir.isEmpty() || !Files.isDirectory(Paths.get(spoolDir))) {
+            return;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(spoolDir), SPOOL_PREFIX + "*" + SPOOL_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            log.warn("Deleted {} spooled ingest payloads left by a previous run", deleted);
+        }
+    }
+
+    // El trabajo se crea cuando termina la copia del cuerpo, que se hace en el spool; el hilo de la petición queda libre mientras tanto
+    public CompletableFuture<IngestJob> submit(InputStream body) throws IngestQueueFullException {
+        purgeFinished();
+        // Se rechaza antes de leer el cuerpo: un cliente rechazado no consume disco ni tiempo de petición
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new IngestQueueFullException(retryAfterSeconds);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return spool(body);
+                } catch (IOException | IngestQueueFullException e) {
+                    throw new CompletionException(e);
+                }
+            }, spooler);
+        } catch (RejectedExecutionException e) {
+            throw new IngestQueueFullException(retryAfterSeconds);
+        }
+    }
+
+    private IngestJob spool(InputStream body) throws IOException, IngestQueueFullException {
+        Path file = spoolDir.isEmpty()
+                ? Files.createTempFile(SPOOL_PREFIX, SPOOL_SUFFIX)
+                : Files.createTempFile(Files.createDirectories(Paths.get(spoolDir)), SPOOL_PREFIX, SPOOL_SUFFIX);
+        IngestJob job = new IngestJob(UUID.randomUUID().toString());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            jobs.put(job.getId(), job);
+            executor.execute(new QueuedJob(job, file));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(file);
+            if (e instanceof RejectedExecutionException) {
+                // Otra petición ha ocupado el último hueco mientras se copiaba el cuerpo
+                throw new IngestQueueFullException(retryAfterSeconds);
+            }
+            throw e;
+        }
+        return job;
+    }
+
+    public IngestJob find(String jobId) throws IngestJobNotFoundException {
+        IngestJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IngestJobNotFoundException();
+        }
+        return job;
+    }
+
+    private void run(IngestJob job, Path file) {
+        job.start();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            projectIngestService.ingest(in, job.getProgress());
+            job.succeed();
+        } catch (Exception e) {
+            log.warn("Ingest job {} failed", job.getId(), e);
+            job.fail(describe(e));
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled ingest payload {}", file, e);
+            }
+        }
+    }
+
+    // Mismo mensaje que daría la ingesta síncrona (el reason de @ResponseStatus si la excepción no trae mensaje)
+    private static String describe(Exception e) {
+        if (e.getMessage() != null) {
+            return e.getMessage();
+        }
+        ResponseStatus status = AnnotationUtils.findAnnotation(e.getClass(), ResponseStatus.class);
+        return status != null && !status.reason().isEmpty() ? status.reason() : e.getClass().getSimpleName();
+    }
+
+    // Los trabajos terminados solo se conservan durante el periodo de retención
+    private void purgeFinished() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    // Los trabajos en curso tienen shutdownTimeout para terminar; los que siguen en cola no llegan a empezar
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        spooler.shutdown();
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            for (Runnable dropped : executor.shutdownNow()) {
+                QueuedJob queued = (QueuedJob) dropped;
+                queued.job.fail("The server stopped before the ingestion started");
+                try {
+                    Files.deleteIfExists(queued.file);
+                } catch (IOException e) {
+                    log.warn("Could not delete spooled ingest payload {}", queued.file, e);
+                }
+            }
+            // Los que estaban en curso reciben la interrupción; se espera a que run() los marque y borre su fichero
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Ingest workers did not stop within {}", shutdownTimeout);
+                jobs.values().stream()
+                        .filter(job -> !job.isFinished())
+                        .forEach(job -> job.fail("The server stopped before the ingestion finished"));
+            }
+        }
+        spooler.shutdownNow();
+    }
+
+    // Tarea con nombre (y no una lambda) para poder recuperar el trabajo y su fichero de lo que devuelve shutdownNow
+    private final class QueuedJob implements Runnable {
+        private final IngestJob job;
+        private final Path file;
+
+        private QueuedJob(IngestJob job, Path file) {
+            this.job = job;
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            IngestJobService.this.run(job, file);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Resumen que se devuelve tras una ingesta en streaming: solo contadores, nunca el grafo completo
+// En la ingesta asíncrona es también el progreso del trabajo: lo escribe un único hilo y lo leen otros (volatile)
+public class IngestSummary {
+
+    @JsonProperty("project_id")
+    private volatile String projectId;
+    @JsonProperty("commits")
+    private volatile long commits;
+    @JsonProperty("issues")
+    private volatile long issues;
+    @JsonProperty("comments")
+    private volatile long comments;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public void incrementCommits() {
+        this.commits++;
+    }
+
+    public long getIssues() {
+        return issues;
+    }
+
+    public void incrementIssues() {
+        this.issues++;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void incrementComments() {
+        this.comments++;
+    }
+}
@@ -0,0 +1,111 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.SortedMap;
+
+// Respuesta de GET /projects/{id}/lifecycle: percentiles del tiempo hasta el cierre y hasta la primera respuesta,
+// del proyecto y, si se piden, de cada etiqueta; calculados a partir de los histogramas ya agregados
+public class IssueLifecycleMetrics {
+
+    @JsonProperty("project_id")
+    private final String projectId;
+    @JsonProperty("time_to_close")
+    private final Percentiles timeToClose;
+    @JsonProperty("time_to_first_response")
+    private final Percentiles timeToFirstResponse;
+    @JsonProperty("labels")
+    private final List<Label> labels;
+
+    public IssueLifecycleMetrics(String projectId, Percentiles timeToClose, Percentiles timeToFirstResponse, List<Label> labels) {
+        this.projectId = projectId;
+        this.timeToClose = timeToClose;
+        this.timeToFirstResponse = timeToFirstResponse;
+        this.labels = labels;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public Percentiles getTimeToClose() {
+        return timeToClose;
+    }
+
+    public Percentiles getTimeToFirstResponse() {
+        return timeToFirstResponse;
+    }
+
+    public List<Label> getLabels() {
+        return labels;
+    }
+
+    // Percentiles en segundos, con un error relativo menor del 6% (ver LifecycleHistogram); null si no hay issues
+    public static class Percentiles {
+
+        @JsonProperty("issues")
+        private final long issues;
+        @JsonProperty("p50_seconds")
+        private final Long p50Seconds;
+        @JsonProperty("p90_seconds")
+        private final Long p90Seconds;
+        @JsonProperty("p99_seconds")
+        private final Long p99Seconds;
+
+        Percentiles(SortedMap<Integer, Long> histogram) {
+            long total = 0;
+            for (long count : histogram.values()) {
+                total += count;
+            }
+            this.issues = total;
+            this.p50Seconds = LifecycleHistogram.percentile(histogram, total, 0.50);
+            this.p90Seconds = LifecycleHistogram.percentile(histogram, total, 0.90);
+            this.p99Seconds = LifecycleHistogram.percentile(histogram, total, 0.99);
+        }
+
+        public long getIssues() {
+            return issues;
+        }
+
+        public Long getP50Seconds() {
+            return p50Seconds;
+        }
+
+        public Long getP90Seconds() {
+            return p90Seconds;
+        }
+
+        public Long getP99Seconds() {
+            return p99Seconds;
+        }
+    }
+
+    public static class Label {
+
+        @JsonProperty("label")
+        private final String label;
+        @JsonProperty("time_to_close")
+        private final Percentiles timeToClose;
+        @JsonProperty("time_to_first_response")
+        private final Percentiles timeToFirstResponse;
+
+        Label(String label, Percentiles timeToClose, Percentiles timeToFirstResponse) {
+            this.label = label;
+            this.timeToClose = timeToClose;
+            this.timeToFirstResponse = timeToFirstResponse;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Percentiles getTimeToClose() {
+            return timeToClose;
+        }
+
+        public Percentiles getTimeToFirstResponse() {
+            return timeToFirstResponse;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package aiss.gitminer.service;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+// Histograma logarítmico de duraciones en segundos, al estilo de HDR Histogram: 16 intervalos por cada potencia de 2,
+// con un error relativo menor de 1/16 (~6%) desde un segundo hasta siglos, en unos pocos cientos de intervalos
+// A diferencia de un t-digest admite restar valores, así que se mantiene con sumas y restas como el resto de agregados
+public final class LifecycleHistogram {
+
+    // Métricas guardadas en project_lifecycle_histogram.metric
+    static final String TIME_TO_CLOSE = "close";
+    static final String TIME_TO_FIRST_RESPONSE = "first_response";
+    // Etiqueta con la que se guarda el histograma de todas las issues del proyecto
+    static final String ALL_ISSUES = "";
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private LifecycleHistogram() {
+    }
+
+    // Intervalo de una duración: los primeros 16 segundos son exactos; después, 16 intervalos iguales por potencia de 2
+    // Equivale a la expresión SQL de la carga inicial de la migración V8
+    static int bucket(long seconds) {
+        if (seconds < SUB_BUCKETS) {
+            return (int) Math.max(seconds, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(seconds);
+        int subBucket = (int) (seconds >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int bucket) {
+        return bucket < SUB_BUCKETS ? bucket : lowerBound(bucket + 1) - 1;
+    }
+
+    // Percentil p (0..1) de un histograma (intervalo -> número de issues) ordenado por intervalo; null si está vacío
+    // Se devuelve el punto medio del intervalo en el que cae el percentil
+    static Long percentile(SortedMap<Integer, Long> histogram, long total, double p) {
+        if (total <= 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : histogram.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                long lower = lowerBound(entry.getKey());
+                return lower + (upperBound(entry.getKey()) - lower) / 2;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Comparación y copia campo a campo de los datos recibidos sobre la entidad gestionada
+// Se usa en lugar de merge: así solo se escriben (y solo cambian de versión) los elementos que de verdad han cambiado,
+// y no se reemplazan las colecciones hijas
+final class Merging {
+
+    private Merging() {
+    }
+
+    static boolean same(Commit a, Commit b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getMessage(), b.getMessage())
+                && Objects.equals(a.getAuthorName(), b.getAuthorName())
+                && Objects.equals(a.getAuthorEmail(), b.getAuthorEmail())
+                && Objects.equals(a.getAuthoredDate(), b.getAuthoredDate())
+                && Objects.equals(a.getWebUrl(), b.getWebUrl());
+    }
+
+    static void copy(Commit from, Commit to) {
+        to.setTitle(from.getTitle());
+        to.setMessage(from.getMessage());
+        to.setAuthorName(from.getAuthorName());
+        to.setAuthorEmail(from.getAuthorEmail());
+        to.setAuthoredDate(from.getAuthoredDate());
+        to.setWebUrl(from.getWebUrl());
+    }
+
+    // Los comentarios no forman parte de la comparación: se comparan uno a uno, cada uno con su versión
+    static boolean same(Issue a, Issue b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getState(), b.getState())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                && Objects.equals(a.getClosedAt(), b.getClosedAt())
+                && Objects.equals(a.getVotes(), b.getVotes())
+                && Objects.equals(idOf(a.getAuthor()), idOf(b.getAuthor()))
+                && Objects.equals(idOf(a.getAssignee()), idOf(b.getAssignee()))
+                // Las colecciones de Hibernate no comparan por contenido
+                && Objects.equals(list(a.getLabels()), list(b.getLabels()));
+    }
+
+    static void copy(Issue from, Issue to) {
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setState(from.getState());
+        to.setCreatedAt(from.getCreatedAt());
+        to.setUpdatedAt(from.getUpdatedAt());
+        to.setClosedAt(from.getClosedAt());
+        to.setLabels(from.getLabels());
+        to.setAuthor(from.getAuthor());
+        to.setAssignee(from.getAssignee());
+        to.setVotes(from.getVotes());
+    }
+
+    static boolean same(Comment a, Comment b) {
+        return Objects.equals(a.getBody(), b.getBody())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt())
+                && Objects.equals(idOf(a.getAuthor()), idOf(b.getAuthor()));
+    }
+
+    static void copy(Comment from, Comment to) {
+        to.setBody(from.getBody());
+        to.setAuthor(from.getAuthor());
+        to.setCreatedAt(from.getCreatedAt());
+        to.setUpdatedAt(from.getUpdatedAt());
+    }
+
+    // La versión enviada por el cliente solo importa si intenta cambiar algo: reenviar sin cambios un elemento
+    // que otro ha modificado entretanto no es un conflicto
+    static boolean isStale(Long expectedVersion, Long currentVersion) {
+        return expectedVersion != null && !expectedVersion.equals(currentVersion);
+    }
+
+    // getId() sobre un proxy de Hibernate no lo inicializa
+    private static String idOf(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private static List<String> list(List<String> labels) {
+        return labels == null ? List.of() : new ArrayList<>(labels);
+    }
+}
@@ -0,0 +1,119 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.ProjectNotFoundException;
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import aiss.gitminer.repository.CommentRepository;
+import aiss.gitminer.repository.CommitRepository;
+import aiss.gitminer.repository.IssueRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exportación de un proyecto completo en NDJSON: una línea por proyecto, commit, issue y comentario
+// Las filas se leen con un cursor y el contexto de persistencia se vacía cada pocos cientos de filas,
+// así que la memoria no depende del tamaño del proyecto
+@Service
+public class ProjectExportService {
+
+    // Cada cuántas filas se vuelca la salida y se vacía el contexto de persistencia
+    private static final int CHUNK = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CommitRepository commitRepository;
+    private final IssueRepository issueRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public ProjectExportService(CommitRepository commitRepository, IssueRepository issueRepository,
+                                CommentRepository commentRepository, ObjectMapper objectMapper) {
+        this.commitRepository = commitRepository;
+        this.issueRepository = issueRepository;
+        this.commentRepository = commentRepository;
+        // Las colecciones hijas no se serializan anidadas: cada elemento va en su propia línea
+        // Sin separador entre valores raíz (por defecto un espacio): el separador de NDJSON es el salto de línea que se escribe en write
+        this.writer = objectMapper.writer(new SimpleFilterProvider()
+                        .addFilter("expand", SimpleBeanPropertyFilter.serializeAllExcept("commits", "issues", "comments")))
+                .withRootValueSeparator("");
+    }
+
+    // Orden: proyecto, commits, issues y comentarios (cada comentario después de su issue, con issue_id)
+    @Transactional(readOnly = true)
+    public void export(String projectId, OutputStream out) throws IOException, ProjectNotFoundException {
+        Project project = entityManager.find(Project.class, projectId);
+        if (project == null) {
+            throw new ProjectNotFoundException();
+        }
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            write(generator, line("project", project));
+            entityManager.clear();
+            try (Stream<Commit> commits = commitRepository.streamByProjectIdOrderById(projectId)) {
+                writeAll(generator, commits.iterator(), commit -> line("commit", commit));
+            }
+            try (Stream<Issue> issues = issueRepository.streamByProjectIdOrderById(projectId)) {
+                writeAll(generator, issues.iterator(), issue -> line("issue", issue));
+            }
+            try (Stream<Comment> comments = commentRepository.streamByProjectId(projectId)) {
+                writeAll(generator, comments.iterator(), comment -> {
+                    Map<String, Object> line = line("comment", comment);
+                    line.put("issue_id", comment.getIssueId());
+                    return line;
+                });
+            }
+        }
+    }
+
+    // Se leen CHUNK filas antes de serializarlas para que las relaciones perezosas (etiquetas, usuarios) se carguen
+    // por lotes (default_batch_fetch_size) y no con una consulta por fila; después se libera el contexto
+    private <T> void writeAll(JsonGenerator generator, Iterator<T> rows, Function<T, Map<String, Object>> toLine) throws IOException {
+        List<T> chunk = new ArrayList<>(CHUNK);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK || !rows.hasNext()) {
+                for (T row : chunk) {
+                    write(generator, toLine.apply(row));
+                }
+                generator.flush();
+                chunk.clear();
+                // Vaciar el contexto con el cursor abierto es el patrón de procesamiento por lotes de Hibernate: el cursor es el ResultSet
+                // de JDBC y cada fila se materializa al avanzar, así que no depende de las entidades ya leídas (las consultas no usan fetch join)
+                entityManager.clear();
+            }
+        }
+    }
+
+    private void write(JsonGenerator generator, Map<String, Object> line) throws IOException {
+        writer.writeValue(generator, line);
+        generator.writeRaw('\n');
+    }
+
+    private static Map<String, Object> line(String type, Object data) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", type);
+        line.put("data", data);
+        return line;
+    }
+}
@@ -0,0 +1,241 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.InvalidIngestPayloadException;
+import aiss.gitminer.exception.ProjectAlreadyExistsException;
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ingesta de proyectos completos leyendo el JSON de forma incremental (Jackson streaming)
+// Cada commit/issue se deserializa, se persiste y se descarta, de modo que la memoria no depende del tamaño del proyecto
+@Service
+public class ProjectIngestService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ProjectStatsService projectStatsService;
+    // Número de entidades persistidas entre cada flush/clear; conviene que coincida con hibernate.jdbc.batch_size
+    private final int batchSize;
+
+    @Autowired
+    public ProjectIngestService(ObjectMapper objectMapper, UserService userService, ProjectStatsService projectStatsService,
+                                @Value("${gitminer.ingest.batch-size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.userService = userService;
+        this.projectStatsService = projectStatsService;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public IngestSummary ingest(InputStream body) throws IOException, InvalidIngestPayloadException, ProjectAlreadyExistsException {
+        return ingest(body, new IngestSummary());
+    }
+
+    // Variante en la que el llamante aporta el resumen, para poder consultar el progreso mientras dura la ingesta
+    @Transactional(rollbackFor = Exception.class)
+    public IngestSummary ingest(InputStream body, IngestSummary summary) throws IOException, InvalidIngestPayloadException, ProjectAlreadyExistsException {
+        Batch batch = new Batch(userService.newInterner(), projectStatsService.newDelta());
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidIngestPayloadException("The payload must be a JSON object");
+            }
+            Project project = new Project();
+            String projectId = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id":
+                        project.setId(parser.getValueAsString());
+                        break;
+                    case "name":
+                        project.setName(parser.getValueAsString());
+                        break;
+                    case "web_url":
+                        project.setWebUrl(parser.getValueAsString());
+                        break;
+                    case "commits":
+                        projectId = persistProject(project, projectId);
+                        readCommits(parser, projectId, batch, summary);
+                        break;
+                    case "issues":
+                        projectId = persistProject(project, projectId);
+                        readIssues(parser, projectId, batch, summary);
+                        break;
+                    default:
+                        parser.skipChildren(); // Ignoramos campos desconocidos igual que en el POST normal
+                }
+            }
+            // Proyecto sin commits ni issues
+            projectId = persistProject(project, projectId);
+            summary.setProjectId(projectId);
+            batch.stats.project(projectId);
+        } catch (JsonProcessingException e) {
+            throw new InvalidIngestPayloadException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+        batch.users.flush();
+        entityManager.flush();
+        entityManager.clear();
+        // Las estadísticas se actualizan con lo ingerido, en la misma transacción
+        projectStatsService.apply(batch.stats);
+        return summary;
+    }
+
+    // Persiste la cabecera del proyecto antes del primer hijo (las claves ajenas de commit/issue apuntan a ella)
+    // Por eso id, name y web_url deben aparecer en el JSON antes que commits e issues
+    private String persistProject(Project project, String projectId) throws InvalidIngestPayloadException, ProjectAlreadyExistsException {
+        if (projectId != null) {
+            return projectId;
+        }
+        if (project.getId() == null || project.getName() == null || project.getWebUrl() == null) {
+            throw new InvalidIngestPayloadException("The fields id, name and web_url must precede commits and issues");
+        }
+        persistHeader(project);
+        entityManager.detach(project);
+        return project.getId();
+    }
+
+    // Alta de un proyecto completo (POST) en una única transacción: usuarios, proyecto, hijos y estadísticas se confirman juntos o nada
+    @Transactional(rollbackFor = Exception.class)
+    public Project create(Project incoming) throws ProjectAlreadyExistsException {
+        Project project = new Project(incoming.getId(), incoming.getName(), incoming.getWebUrl(), null, null);
+        persistHeader(project);
+        // Como en la ingesta, los hijos se insertan con su clave ajena y no a través de las colecciones del proyecto,
+        // que lo marcarían como modificado y le subirían la versión nada más crearlo
+        entityManager.detach(project);
+        userService.internUsers(incoming); // Los usuarios se guardan antes, una vez cada uno
+        projectStatsService.prepare(incoming);
+        project.setCommits(incoming.getCommits() == null ? new ArrayList<>() : incoming.getCommits());
+        project.setIssues(incoming.getIssues() == null ? new ArrayList<>() : incoming.getIssues());
+        projectStatsService.created(project); // Asigna también el projectId de commits e issues
+        for (Commit commit : project.getCommits()) {
+            entityManager.persist(commit);
+        }
+        for (Issue issue : project.getIssues()) {
+            if (issue.getComments() != null) {
+                for (Comment comment : issue.getComments()) {
+                    comment.setIssueId(issue.getId());
+                }
+            }
+            entityManager.persist(issue); // Los comentarios se insertan en cascada
+        }
+        return project;
+    }
+
+    // Sobrescribir un proyecto existente saltaría el control de versiones: para eso está el PUT con If-Match
+    // persist (no merge) y flush inmediato: si otra transacción inserta el mismo id a la vez, la clave primaria rechaza una de las dos
+    private void persistHeader(Project project) throws ProjectAlreadyExistsException {
+        if (entityManager.find(Project.class, project.getId()) != null) {
+            throw new ProjectAlreadyExistsException();
+        }
+        try {
+            entityManager.persist(project);
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            if (e.getCause() instanceof ConstraintViolationException) {
+                throw new ProjectAlreadyExistsException();
+            }
+            throw e;
+        }
+    }
+
+    private void readCommits(JsonParser parser, String projectId, Batch batch, IngestSummary summary) throws IOException, InvalidIngestPayloadException {
+        if (!startArray(parser, "commits")) {
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            Commit commit = objectMapper.readValue(parser, Commit.class);
+            commit.setProjectId(projectId);
+            entityManager.persist(commit);
+            batch.stats.commit(commit, 1);
+            summary.incrementCommits();
+            afterPersist(batch, 1);
+        }
+    }
+
+    private void readIssues(JsonParser parser, String projectId, Batch batch, IngestSummary summary) throws IOException, InvalidIngestPayloadException {
+        if (!startArray(parser, "issues")) {
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            // Una issue se lee entera (con sus comentarios); el límite de memoria es una issue, no el proyecto
+            Issue issue = objectMapper.readValue(parser, Issue.class);
+            List<Comment> comments = issue.getComments();
+            // Los comentarios se insertan por separado con su issueId ya relleno, así no hace falta un UPDATE por comentario
+            issue.setComments(new ArrayList<>());
+            issue.setProjectId(projectId);
+            issue.setFirstCommentAt(ProjectStatsDelta.firstCommentAt(comments));
+            issue.setAuthor(batch.users.intern(issue.getAuthor()));
+            issue.setAssignee(batch.users.intern(issue.getAssignee()));
+            entityManager.persist(issue);
+            batch.stats.issue(issue, 1);
+            summary.incrementIssues();
+            if (comments != null) {
+                for (Comment comment : comments) {
+                    comment.setIssueId(issue.getId());
+                    comment.setAuthor(batch.users.intern(comment.getAuthor()));
+                    entityManager.persist(comment);
+                    summary.incrementComments();
+                }
+            }
+            batch.stats.comments(projectId, comments, 1);
+            afterPersist(batch, 1 + (comments == null ? 0 : comments.size()));
+        }
+    }
+
+    private boolean startArray(JsonParser parser, String field) throws InvalidIngestPayloadException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidIngestPayloadException("The field " + field + " must be an array");
+        }
+        return true;
+    }
+
+    // Cada batchSize entidades se vuelca el lote a la base de datos y se vacía el contexto de persistencia
+    private void afterPersist(Batch batch, int persisted) {
+        batch.pending += persisted;
+        if (batch.pending >= batchSize) {
+            // Primero los usuarios nuevos del lote, ya que las issues y comentarios los referencian
+            batch.users.flush();
+            entityManager.flush();
+            entityManager.clear();
+            batch.pending = 0;
+        }
+    }
+
+    // Estado de la ingesta en curso: entidades pendientes de volcar, usuarios ya vistos en toda la ingesta
+    // y cambios en las estadísticas. Cada usuario distinto se escribe una sola vez, aunque aparezca en miles de issues y comentarios
+    private static class Batch {
+        private final UserInterner users;
+        private final ProjectStatsDelta stats;
+        private int pending;
+
+        private Batch(UserInterner users, ProjectStatsDelta stats) {
+            this.users = users;
+            this.stats = stats;
+        }
+    }
+}
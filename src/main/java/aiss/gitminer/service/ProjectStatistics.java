@@ -0,0 +1,81 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.ProjectAuthorStats;
+import aiss.gitminer.model.ProjectLabelStats;
+import aiss.gitminer.model.ProjectStats;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// Respuesta de GET /projects/{id}/stats, construida a partir de los agregados ya calculados
+public class ProjectStatistics {
+
+    @JsonProperty("project_id")
+    private final String projectId;
+    @JsonProperty("commits")
+    private final long commits;
+    @JsonProperty("open_issues")
+    private final long openIssues;
+    @JsonProperty("closed_issues")
+    private final long closedIssues;
+    @JsonProperty("mean_time_to_close_seconds")
+    private final Double meanTimeToCloseSeconds;
+    @JsonProperty("comments")
+    private final long comments;
+    @JsonProperty("comments_per_issue")
+    private final Double commentsPerIssue;
+    @JsonProperty("top_authors")
+    private final List<ProjectAuthorStats> topAuthors;
+    @JsonProperty("top_labels")
+    private final List<ProjectLabelStats> topLabels;
+
+    public ProjectStatistics(ProjectStats stats, List<ProjectAuthorStats> topAuthors, List<ProjectLabelStats> topLabels) {
+        long issues = stats.getOpenIssues() + stats.getClosedIssues();
+        this.projectId = stats.getProjectId();
+        this.commits = stats.getCommits();
+        this.openIssues = stats.getOpenIssues();
+        this.closedIssues = stats.getClosedIssues();
+        this.meanTimeToCloseSeconds = stats.getClosedDurationCount() == 0 ? null
+                : (double) stats.getClosedDurationSeconds() / stats.getClosedDurationCount();
+        this.comments = stats.getComments();
+        this.commentsPerIssue = issues == 0 ? null : (double) stats.getComments() / issues;
+        this.topAuthors = topAuthors;
+        this.topLabels = topLabels;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getOpenIssues() {
+        return openIssues;
+    }
+
+    public long getClosedIssues() {
+        return closedIssues;
+    }
+
+    public Double getMeanTimeToCloseSeconds() {
+        return meanTimeToCloseSeconds;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public Double getCommentsPerIssue() {
+        return commentsPerIssue;
+    }
+
+    public List<ProjectAuthorStats> getTopAuthors() {
+        return topAuthors;
+    }
+
+    public List<ProjectLabelStats> getTopLabels() {
+        return topLabels;
+    }
+}
@@ -0,0 +1,201 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Cambios pendientes de aplicar a las estadísticas, acumulados en memoria durante una escritura
+// Su tamaño depende del número de proyectos, autores y etiquetas distintos, no del número de commits o issues
+public class ProjectStatsDelta {
+
+    // Índices de los contadores de cada proyecto
+    static final int COMMITS = 0;
+    static final int OPEN_ISSUES = 1;
+    static final int CLOSED_ISSUES = 2;
+    static final int CLOSED_DURATION_SECONDS = 3;
+    static final int CLOSED_DURATION_COUNT = 4;
+    static final int COMMENTS = 5;
+
+    // Índices de los contadores de actividad de cada día
+    static final int ACTIVITY_COMMITS = 0;
+    static final int ACTIVITY_ISSUES_OPENED = 1;
+    static final int ACTIVITY_ISSUES_CLOSED = 2;
+    static final int ACTIVITY_COMMENTS = 3;
+
+    final Map<String, long[]> projects = new HashMap<>();
+    final Map<String, Map<String, Long>> authors = new HashMap<>();
+    final Map<String, Map<String, Long>> labels = new HashMap<>();
+    // Primer y último commit añadidos de cada autor; si se quita un commit, sus fechas se recalculan (no se pueden restar)
+    final Map<String, Map<String, Instant[]>> authorDates = new HashMap<>();
+    final Map<String, Set<String>> staleAuthorDates = new HashMap<>();
+    // Actividad por día (UTC); las semanas y los meses se derivan de estos días al aplicar el delta
+    final Map<String, Map<LocalDate, long[]>> activity = new HashMap<>();
+    // Issues por intervalo de duración (LifecycleHistogram), del proyecto y de cada etiqueta
+    final Map<String, Map<LifecycleKey, Long>> lifecycle = new HashMap<>();
+
+    ProjectStatsDelta() {
+    }
+
+    // Garantiza que el proyecto tenga su fila de estadísticas aunque no tenga commits ni issues
+    public void project(String projectId) {
+        counters(projectId);
+    }
+
+    // sign = 1 al insertar, -1 al borrar o antes de modificar (con el estado anterior)
+    public void commit(Commit commit, int sign) {
+        if (commit.getProjectId() == null) {
+            return;
+        }
+        counters(commit.getProjectId())[COMMITS] += sign;
+        activity(commit.getProjectId(), commit.getAuthoredDate(), ACTIVITY_COMMITS, sign);
+        if (commit.getAuthorName() != null) {
+            authors.computeIfAbsent(commit.getProjectId(), id -> new HashMap<>())
+                    .merge(commit.getAuthorName(), (long) sign, Long::sum);
+            if (sign < 0) {
+                staleAuthorDates.computeIfAbsent(commit.getProjectId(), id -> new HashSet<>()).add(commit.getAuthorName());
+            } else if (commit.getAuthoredDate() != null) {
+                Instant date = commit.getAuthoredDate();
+                Instant[] range = authorDates.computeIfAbsent(commit.getProjectId(), id -> new HashMap<>())
+                        .computeIfAbsent(commit.getAuthorName(), name -> new Instant[] { date, date });
+                if (date.isBefore(range[0])) {
+                    range[0] = date;
+                }
+                if (date.isAfter(range[1])) {
+                    range[1] = date;
+                }
+            }
+        }
+    }
+
+    public void issue(Issue issue, int sign) {
+        if (issue.getProjectId() == null) {
+            return;
+        }
+        long[] counters = counters(issue.getProjectId());
+        activity(issue.getProjectId(), issue.getCreatedAt(), ACTIVITY_ISSUES_OPENED, sign);
+        if (isClosed(issue.getState())) {
+            counters[CLOSED_ISSUES] += sign;
+            activity(issue.getProjectId(), issue.getClosedAt(), ACTIVITY_ISSUES_CLOSED, sign);
+            if (issue.getCreatedAt() != null && issue.getClosedAt() != null) {
+                counters[CLOSED_DURATION_SECONDS] += sign * Duration.between(issue.getCreatedAt(), issue.getClosedAt()).getSeconds();
+                counters[CLOSED_DURATION_COUNT] += sign;
+            }
+        } else {
+            counters[OPEN_ISSUES] += sign;
+        }
+        // Una etiqueta repetida en la misma issue cuenta una sola vez
+        Set<String> distinct = issue.getLabels() == null ? new LinkedHashSet<>() : new LinkedHashSet<>(issue.getLabels());
+        distinct.remove(null);
+        if (!distinct.isEmpty()) {
+            Map<String, Long> projectLabels = labels.computeIfAbsent(issue.getProjectId(), id -> new HashMap<>());
+            for (String label : distinct) {
+                projectLabels.merge(label, (long) sign, Long::sum);
+            }
+        }
+        if (isClosed(issue.getState()) && issue.getCreatedAt() != null && issue.getClosedAt() != null) {
+            lifecycle(issue.getProjectId(), LifecycleHistogram.TIME_TO_CLOSE, distinct,
+                    Duration.between(issue.getCreatedAt(), issue.getClosedAt()).getSeconds(), sign);
+        }
+        if (issue.getCreatedAt() != null && issue.getFirstCommentAt() != null) {
+            lifecycle(issue.getProjectId(), LifecycleHistogram.TIME_TO_FIRST_RESPONSE, distinct,
+                    Duration.between(issue.getCreatedAt(), issue.getFirstCommentAt()).getSeconds(), sign);
+        }
+    }
+
+    // El comentario no guarda el proyecto, así que lo indica quien escribe
+    public void comment(String projectId, Comment comment, int sign) {
+        if (projectId == null) {
+            return;
+        }
+        counters(projectId)[COMMENTS] += sign;
+        activity(projectId, comment.getCreatedAt(), ACTIVITY_COMMENTS, sign);
+    }
+
+    public void comments(String projectId, List<Comment> comments, int sign) {
+        if (comments != null) {
+            for (Comment comment : comments) {
+                comment(projectId, comment, sign);
+            }
+        }
+    }
+
+    // Fecha del primer comentario de una issue (Issue.firstCommentAt), a partir de sus comentarios
+    public static Instant firstCommentAt(List<Comment> comments) {
+        Instant first = null;
+        if (comments != null) {
+            for (Comment comment : comments) {
+                if (comment.getCreatedAt() != null && (first == null || comment.getCreatedAt().isBefore(first))) {
+                    first = comment.getCreatedAt();
+                }
+            }
+        }
+        return first;
+    }
+
+    public boolean isEmpty() {
+        return projects.isEmpty();
+    }
+
+    // Mismo criterio que las cargas iniciales de las migraciones (state = 'closed', sin distinguir mayúsculas)
+    static boolean isClosed(String state) {
+        return "closed".equalsIgnoreCase(state);
+    }
+
+    private void lifecycle(String projectId, String metric, Set<String> labels, long seconds, int sign) {
+        int bucket = LifecycleHistogram.bucket(seconds);
+        Map<LifecycleKey, Long> histogram = lifecycle.computeIfAbsent(projectId, id -> new HashMap<>());
+        histogram.merge(new LifecycleKey(LifecycleHistogram.ALL_ISSUES, metric, bucket), (long) sign, Long::sum);
+        for (String label : labels) {
+            histogram.merge(new LifecycleKey(label, metric, bucket), (long) sign, Long::sum);
+        }
+    }
+
+    private void activity(String projectId, Instant at, int counter, int sign) {
+        if (at != null) {
+            activity.computeIfAbsent(projectId, id -> new HashMap<>())
+                    .computeIfAbsent(LocalDate.ofInstant(at, ZoneOffset.UTC), day -> new long[4])[counter] += sign;
+        }
+    }
+
+    private long[] counters(String projectId) {
+        return projects.computeIfAbsent(projectId, id -> new long[6]);
+    }
+
+    // Fila de project_lifecycle_histogram dentro de un proyecto
+    static final class LifecycleKey {
+        final String label;
+        final String metric;
+        final int bucket;
+
+        LifecycleKey(String label, String metric, int bucket) {
+            this.label = label;
+            this.metric = metric;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LifecycleKey)) return false;
+            LifecycleKey key = (LifecycleKey) o;
+            return bucket == key.bucket && label.equals(key.label) && metric.equals(key.metric);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, metric, bucket);
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.config.ChangeTracker;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import aiss.gitminer.model.ProjectActivity;
+import aiss.gitminer.model.ProjectAuthorStats;
+import aiss.gitminer.model.ProjectLabelStats;
+import aiss.gitminer.model.ProjectLifecycleHistogram;
+import aiss.gitminer.model.ProjectStats;
+import aiss.gitminer.repository.ProjectAuthorStatsRepository;
+import aiss.gitminer.repository.ProjectLabelStatsRepository;
+import aiss.gitminer.repository.ProjectLifecycleHistogramRepository;
+import aiss.gitminer.repository.ProjectStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Estadísticas por proyecto materializadas en project_stats, project_author_stats, project_label_stats, project_activity
+// y project_lifecycle_histogram
+// Cada escritura aplica solo la diferencia (ProjectStatsDelta); leerlas nunca recorre commits ni issues
+@Service
+public class ProjectStatsService {
+
+    // Se escriben con JDBC, fuera del StatementInspector de Hibernate: los ETag de sus lecturas se invalidan a mano
+    private static final String[] TABLES = { "project_stats", "project_author_stats", "project_label_stats",
+            "project_activity", "project_lifecycle_histogram" };
+    private static final String UPDATE_PROJECT =
+            "UPDATE project_stats SET commits = commits + ?, open_issues = open_issues + ?, closed_issues = closed_issues + ?, " +
+            "closed_duration_seconds = closed_duration_seconds + ?, closed_duration_count = closed_duration_count + ?, " +
+            "comments = comments + ? WHERE project_id = ?";
+    private static final String INSERT_PROJECT =
+            "INSERT INTO project_stats (commits, open_issues, closed_issues, closed_duration_seconds, closed_duration_count, " +
+            "comments, project_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_AUTHOR =
+            "UPDATE project_author_stats SET commits = commits + ? WHERE project_id = ? AND author_name = ?";
+    private static final String INSERT_AUTHOR =
+            "INSERT INTO project_author_stats (commits, project_id, author_name) VALUES (?, ?, ?)";
+    // Las fechas solo pueden ampliarse de forma incremental; al quitar commits se recalculan con el índice (project_id, author_name, authored_date)
+    private static final String UPDATE_AUTHOR_DATES =
+            "UPDATE project_author_stats SET " +
+            "first_commit_at = CASE WHEN first_commit_at IS NULL OR first_commit_at > ? THEN ? ELSE first_commit_at END, " +
+            "last_commit_at = CASE WHEN last_commit_at IS NULL OR last_commit_at < ? THEN ? ELSE last_commit_at END " +
+            "WHERE project_id = ? AND author_name = ?";
+    private static final String RECOMPUTE_AUTHOR_DATES =
+            "UPDATE project_author_stats SET " +
+            "first_commit_at = (SELECT MIN(c.authored_date) FROM commit c WHERE c.project_id = ? AND c.author_name = ?), " +
+            "last_commit_at = (SELECT MAX(c.authored_date) FROM commit c WHERE c.project_id = ? AND c.author_name = ?) " +
+            "WHERE project_id = ? AND author_name = ?";
+    private static final String UPDATE_LABEL =
+            "UPDATE project_label_stats SET issues = issues + ? WHERE project_id = ? AND label = ?";
+    private static final String INSERT_LABEL =
+            "INSERT INTO project_label_stats (issues, project_id, label) VALUES (?, ?, ?)";
+    private static final String UPDATE_ACTIVITY =
+            "UPDATE project_activity SET commits = commits + ?, issues_opened = issues_opened + ?, issues_closed = issues_closed + ?, " +
+            "comments = comments + ? WHERE project_id = ? AND bucket = ? AND bucket_start = ?";
+    private static final String INSERT_ACTIVITY =
+            "INSERT INTO project_activity (commits, issues_opened, issues_closed, comments, project_id, bucket, bucket_start) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Un rango de intervalos es una lectura contigua de la clave primaria (project_id, bucket, bucket_start)
+    // Se lee con JDBC para que las fechas no dependan de la zona horaria de la JVM
+    private static final String ACTIVITY =
+            "SELECT bucket_start, commits, issues_opened, issues_closed, comments FROM project_activity WHERE project_id = ? AND bucket = ?";
+    private static final String UPDATE_LIFECYCLE =
+            "UPDATE project_lifecycle_histogram SET issues = issues + ? WHERE project_id = ? AND label = ? AND metric = ? AND bucket = ?";
+    private static final String INSERT_LIFECYCLE =
+            "INSERT INTO project_lifecycle_histogram (issues, project_id, label, metric, bucket) VALUES (?, ?, ?, ?, ?)";
+    // Filas que se han quedado a cero; solo se comprueban las claves a las que el delta ha restado
+    private static final String DELETE_EMPTY_AUTHOR =
+            "DELETE FROM project_author_stats WHERE project_id = ? AND author_name = ? AND commits <= 0";
+    private static final String DELETE_EMPTY_LABEL =
+            "DELETE FROM project_label_stats WHERE project_id = ? AND label = ? AND issues <= 0";
+    private static final String DELETE_EMPTY_ACTIVITY =
+            "DELETE FROM project_activity WHERE project_id = ? AND bucket = ? AND bucket_start = ? " +
+            "AND commits = 0 AND issues_opened = 0 AND issues_closed = 0 AND comments = 0";
+    private static final String DELETE_EMPTY_LIFECYCLE =
+            "DELETE FROM project_lifecycle_histogram WHERE project_id = ? AND label = ? AND metric = ? AND bucket = ? AND issues <= 0";
+
+    // Clasificación de una ventana de tiempo: un único GROUP BY que recorre solo el índice (project_id, authored_date, author_name)
+    private static final String CONTRIBUTORS =
+            "SELECT author_name, COUNT(*) AS commits, MIN(authored_date) AS first_commit_at, MAX(authored_date) AS last_commit_at " +
+            "FROM commit WHERE project_id = ? AND author_name IS NOT NULL";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectStatsRepository projectStatsRepository;
+    private final ProjectAuthorStatsRepository projectAuthorStatsRepository;
+    private final ProjectLabelStatsRepository projectLabelStatsRepository;
+    private final ProjectLifecycleHistogramRepository projectLifecycleHistogramRepository;
+
+    @Autowired
+    public ProjectStatsService(JdbcTemplate jdbcTemplate, ProjectStatsRepository projectStatsRepository,
+                               ProjectAuthorStatsRepository projectAuthorStatsRepository,
+                               ProjectLabelStatsRepository projectLabelStatsRepository,
+                               ProjectLifecycleHistogramRepository projectLifecycleHistogramRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.projectStatsRepository = projectStatsRepository;
+        this.projectAuthorStatsRepository = projectAuthorStatsRepository;
+        this.projectLabelStatsRepository = projectLabelStatsRepository;
+        this.projectLifecycleHistogramRepository = projectLifecycleHistogramRepository;
+    }
+
+    public ProjectStatsDelta newDelta() {
+        return new ProjectStatsDelta();
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectStatistics get(String projectId, int top) {
+        ProjectStats stats = projectStatsRepository.findById(projectId).orElseGet(() -> {
+            ProjectStats empty = new ProjectStats();
+            empty.setProjectId(projectId);
+            return empty;
+        });
+        PageRequest first = PageRequest.of(0, top);
+        return new ProjectStatistics(stats,
+                projectAuthorStatsRepository.findByProjectIdOrderByCommitsDesc(projectId, first),
+                projectLabelStatsRepository.findByProjectIdOrderByIssuesDesc(projectId, first));
+    }
+
+    // Histograma de etiquetas del proyecto, de la más usada a la menos; top null = todas
+    @Transactional(readOnly = true)
+    public List<ProjectLabelStats> labels(String projectId, Integer top) {
+        return projectLabelStatsRepository.findByProjectIdOrderByIssuesDesc(projectId,
+                top == null ? Pageable.unpaged() : PageRequest.of(0, top));
+    }
+
+    // Autores del proyecto por número de commits, con su primer y último commit
+    // Sin ventana de tiempo se lee del agregado; con since/until se agrupan los commits de ese intervalo
+    @Transactional(readOnly = true)
+    public List<ProjectAuthorStats> contributors(String projectId, Instant since, Instant until, int top) {
+        if (since == null && until == null) {
+            return projectAuthorStatsRepository.findByProjectIdOrderByCommitsDesc(projectId, PageRequest.of(0, top));
+        }
+        StringBuilder sql = new StringBuilder(CONTRIBUTORS);
+        List<Object> args = new ArrayList<>();
+        args.add(projectId);
+        if (since != null) {
+            sql.append(" AND authored_date >= ?");
+            args.add(utc(since));
+        }
+        if (until != null) {
+            sql.append(" AND authored_date < ?");
+            args.add(utc(until));
+        }
+        sql.append(" GROUP BY author_name ORDER BY commits DESC, author_name LIMIT ?");
+        args.add(top);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            ProjectAuthorStats author = new ProjectAuthorStats();
+            author.setProjectId(projectId);
+            author.setAuthorName(rs.getString("author_name"));
+            author.setCommits(rs.getLong("commits"));
+            author.setFirstCommitAt(instant(rs.getObject("first_commit_at", LocalDateTime.class)));
+            author.setLastCommitAt(instant(rs.getObject("last_commit_at", LocalDateTime.class)));
+            return author;
+        }, args.toArray());
+    }
+
+    // Serie temporal de actividad en intervalos del tamaño pedido; solo se devuelven los intervalos con actividad
+    @Transactional(readOnly = true)
+    public List<ProjectActivity> activity(String projectId, ActivityBucket bucket, Instant since, Instant until) {
+        StringBuilder sql = new StringBuilder(ACTIVITY);
+        List<Object> args = new ArrayList<>();
+        args.add(projectId);
+        args.add(bucket.key());
+        if (since != null) {
+            // Se incluye el intervalo que contiene since
+            sql.append(" AND bucket_start >= ?");
+            args.add(bucket.start(utc(since).toLocalDate()));
+        }
+        if (until != null) {
+            // Se incluyen los intervalos que empiezan antes de until
+            LocalDateTime end = utc(until);
+            sql.append(" AND bucket_start < ?");
+            args.add(end.toLocalTime().equals(LocalTime.MIDNIGHT) ? end.toLocalDate() : end.toLocalDate().plusDays(1));
+        }
+        sql.append(" ORDER BY bucket_start");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            ProjectActivity activity = new ProjectActivity();
+            activity.setProjectId(projectId);
+            activity.setBucket(bucket.key());
+            activity.setBucketStart(rs.getObject("bucket_start", LocalDate.class));
+            activity.setCommits(rs.getLong("commits"));
+            activity.setIssuesOpened(rs.getLong("issues_opened"));
+            activity.setIssuesClosed(rs.getLong("issues_closed"));
+            activity.setComments(rs.getLong("comments"));
+            return activity;
+        }, args.toArray());
+    }
+
+    // Percentiles del tiempo hasta el cierre y hasta la primera respuesta; byLabel añade los de cada etiqueta
+    // Solo se leen los intervalos no vacíos de los histogramas (unos cientos como mucho por histograma), nunca las issues
+    @Transactional(readOnly = true)
+    public IssueLifecycleMetrics lifecycle(String projectId, boolean byLabel) {
+        List<ProjectLifecycleHistogram> rows = byLabel
+                ? projectLifecycleHistogramRepository.findByProjectIdOrderByLabelAscMetricAscBucketAsc(projectId)
+                : projectLifecycleHistogramRepository.findByProjectIdAndLabelOrderByMetricAscBucketAsc(projectId, LifecycleHistogram.ALL_ISSUES);
+        // etiqueta -> métrica -> histograma, en el orden de la clave primaria
+        Map<String, Map<String, SortedMap<Integer, Long>>> histograms = new LinkedHashMap<>();
+        histograms.put(LifecycleHistogram.ALL_ISSUES, new LinkedHashMap<>());
+        for (ProjectLifecycleHistogram row : rows) {
+            histograms.computeIfAbsent(row.getLabel(), label -> new LinkedHashMap<>())
+                    .computeIfAbsent(row.getMetric(), metric -> new TreeMap<>())
+                    .put(row.getBucket(), row.getIssues());
+        }
+        List<IssueLifecycleMetrics.Label> labels = byLabel ? new ArrayList<>() : null;
+        histograms.forEach((label, metrics) -> {
+            if (!label.equals(LifecycleHistogram.ALL_ISSUES)) {
+                labels.add(new IssueLifecycleMetrics.Label(label,
+                        percentiles(metrics, LifecycleHistogram.TIME_TO_CLOSE),
+                        percentiles(metrics, LifecycleHistogram.TIME_TO_FIRST_RESPONSE)));
+            }
+        });
+        Map<String, SortedMap<Integer, Long>> project = histograms.get(LifecycleHistogram.ALL_ISSUES);
+        return new IssueLifecycleMetrics(projectId,
+                percentiles(project, LifecycleHistogram.TIME_TO_CLOSE),
+                percentiles(project, LifecycleHistogram.TIME_TO_FIRST_RESPONSE),
+                labels);
+    }
+
+    // Campos derivados que se guardan con las issues (fecha del primer comentario); se rellenan antes de persistir un proyecto nuevo
+    public void prepare(Project project) {
+        if (project.getIssues() != null) {
+            for (Issue issue : project.getIssues()) {
+                issue.setFirstCommentAt(ProjectStatsDelta.firstCommentAt(issue.getComments()));
+            }
+        }
+    }
+
+    // Aplica los cambios acumulados: un UPDATE por lotes y un INSERT por lotes para las filas que aún no existían
+    @Transactional
+    public void apply(ProjectStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        ChangeTracker.touched(TABLES);
+        List<Object[]> projectRows = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : delta.projects.entrySet()) {
+            long[] c = entry.getValue();
+            projectRows.add(new Object[] {
+                    c[ProjectStatsDelta.COMMITS], c[ProjectStatsDelta.OPEN_ISSUES], c[ProjectStatsDelta.CLOSED_ISSUES],
+                    c[ProjectStatsDelta.CLOSED_DURATION_SECONDS], c[ProjectStatsDelta.CLOSED_DURATION_COUNT],
+                    c[ProjectStatsDelta.COMMENTS], entry.getKey() });
+        }
+        upsert(UPDATE_PROJECT, INSERT_PROJECT, projectRows);
+        List<Object[]> authorRows = counterRows(delta.authors);
+        List<Object[]> labelRows = counterRows(delta.labels);
+        List<Object[]> activityRows = activityRows(delta.activity);
+        List<Object[]> lifecycleRows = lifecycleRows(delta.lifecycle);
+        upsert(UPDATE_AUTHOR, INSERT_AUTHOR, authorRows);
+        upsert(UPDATE_LABEL, INSERT_LABEL, labelRows);
+        applyAuthorDates(delta);
+        upsert(UPDATE_ACTIVITY, INSERT_ACTIVITY, activityRows);
+        upsert(UPDATE_LIFECYCLE, INSERT_LIFECYCLE, lifecycleRows);
+
+        // Autores, etiquetas e intervalos que han dejado de aparecer en el proyecto
+        deleteEmpty(DELETE_EMPTY_AUTHOR, authorRows, 1);
+        deleteEmpty(DELETE_EMPTY_LABEL, labelRows, 1);
+        deleteEmpty(DELETE_EMPTY_ACTIVITY, activityRows, 4);
+        deleteEmpty(DELETE_EMPTY_LIFECYCLE, lifecycleRows, 1);
+    }
+
+    // Alta de un proyecto completo (POST): las estadísticas se calculan del grafo recibido, sin consultar la base de datos
+    @Transactional
+    public void created(Project project) {
+        ProjectStatsDelta delta = newDelta();
+        delta.project(project.getId());
+        if (project.getCommits() != null) {
+            for (Commit commit : project.getCommits()) {
+                commit.setProjectId(project.getId());
+                delta.commit(commit, 1);
+            }
+        }
+        if (project.getIssues() != null) {
+            for (Issue issue : project.getIssues()) {
+                issue.setProjectId(project.getId());
+                delta.issue(issue, 1);
+                delta.comments(project.getId(), issue.getComments(), 1);
+            }
+        }
+        apply(delta);
+    }
+
+    @Transactional
+    public void delete(String projectId) {
+        ChangeTracker.touched(TABLES);
+        jdbcTemplate.update("DELETE FROM project_stats WHERE project_id = ?", projectId);
+        jdbcTemplate.update("DELETE FROM project_author_stats WHERE project_id = ?", projectId);
+        jdbcTemplate.update("DELETE FROM project_label_stats WHERE project_id = ?", projectId);
+        jdbcTemplate.update("DELETE FROM project_activity WHERE project_id = ?", projectId);
+        jdbcTemplate.update("DELETE FROM project_lifecycle_histogram WHERE project_id = ?", projectId);
+    }
+
+    private void applyAuthorDates(ProjectStatsDelta delta) {
+        List<Object[]> extended = new ArrayList<>();
+        delta.authorDates.forEach((projectId, authors) -> authors.forEach((name, range) -> extended.add(new Object[] {
+                utc(range[0]), utc(range[0]), utc(range[1]), utc(range[1]), projectId, name })));
+        if (!extended.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_AUTHOR_DATES, extended);
+        }
+        List<Object[]> stale = new ArrayList<>();
+        delta.staleAuthorDates.forEach((projectId, authors) -> authors.forEach(name -> stale.add(new Object[] {
+                projectId, name, projectId, name, projectId, name })));
+        if (!stale.isEmpty()) {
+            // El recálculo lee la tabla commit: los cambios de JPA pendientes tienen que estar ya escritos
+            entityManager.flush();
+            jdbcTemplate.batchUpdate(RECOMPUTE_AUTHOR_DATES, stale);
+        }
+    }
+
+    // Cada día del delta suma en su día, en su semana y en su mes
+    private static List<Object[]> activityRows(Map<String, Map<LocalDate, long[]>> activity) {
+        List<Object[]> rows = new ArrayList<>();
+        activity.forEach((projectId, days) -> {
+            for (ActivityBucket bucket : ActivityBucket.values()) {
+                Map<LocalDate, long[]> buckets = new TreeMap<>();
+                days.forEach((day, counts) -> {
+                    long[] total = buckets.computeIfAbsent(bucket.start(day), start -> new long[counts.length]);
+                    for (int i = 0; i < counts.length; i++) {
+                        total[i] += counts[i];
+                    }
+                });
+                buckets.forEach((start, c) -> {
+                    if (c[0] != 0 || c[1] != 0 || c[2] != 0 || c[3] != 0) {
+                        rows.add(new Object[] { c[0], c[1], c[2], c[3], projectId, bucket.key(), start });
+                    }
+                });
+            }
+        });
+        return rows;
+    }
+
+    private static List<Object[]> lifecycleRows(Map<String, Map<ProjectStatsDelta.LifecycleKey, Long>> lifecycle) {
+        List<Object[]> rows = new ArrayList<>();
+        lifecycle.forEach((projectId, histogram) -> histogram.forEach((key, count) -> {
+            if (count != 0) {
+                rows.add(new Object[] { count, projectId, key.label, key.metric, key.bucket });
+            }
+        }));
+        return rows;
+    }
+
+    private static IssueLifecycleMetrics.Percentiles percentiles(Map<String, SortedMap<Integer, Long>> metrics, String metric) {
+        return new IssueLifecycleMetrics.Percentiles(metrics.getOrDefault(metric, new TreeMap<>()));
+    }
+
+    // Hibernate guarda los Instant en UTC (hibernate.jdbc.time_zone); las consultas JDBC usan el mismo criterio
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant instant(LocalDateTime utc) {
+        return utc == null ? null : utc.toInstant(ZoneOffset.UTC);
+    }
+
+    private void upsert(String update, String insert, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(update, rows);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            insertMissing(update, insert, missing);
+        }
+    }
+
+    // Entre el UPDATE y el INSERT otra transacción puede haber insertado la misma clave (dos escrituras que añaden el mismo autor,
+    // etiqueta, día o intervalo): el lote se deshace hasta el savepoint y se repite fila a fila, sumando sobre la fila ya existente
+    // Sin el savepoint las filas del lote que sí se insertaron se sumarían dos veces al repetirlas
+    private void insertMissing(String update, String insert, List<Object[]> missing) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.batchUpdate(insert, missing);
+                connection.releaseSavepoint(savepoint);
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                connection.rollback(savepoint);
+            }
+            for (Object[] row : missing) {
+                if (jdbcTemplate.update(update, row) > 0) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.update(insert, row);
+                } catch (DuplicateKeyException e) {
+                    jdbcTemplate.update(update, row);
+                }
+            }
+            return null;
+        });
+    }
+
+    // keyStart: posición de la primera columna de la clave en cada fila (las anteriores son los contadores)
+    private void deleteEmpty(String delete, List<Object[]> rows, int keyStart) {
+        List<Object[]> decremented = new ArrayList<>();
+        for (Object[] row : rows) {
+            for (int i = 0; i < keyStart; i++) {
+                if ((Long) row[i] < 0) {
+                    decremented.add(Arrays.copyOfRange(row, keyStart, row.length));
+                    break;
+                }
+            }
+        }
+        if (!decremented.isEmpty()) {
+            jdbcTemplate.batchUpdate(delete, decremented);
+        }
+    }
+
+    private static List<Object[]> counterRows(Map<String, Map<String, Long>> counters) {
+        List<Object[]> rows = new ArrayList<>();
+        counters.forEach((projectId, values) -> values.forEach((name, count) -> {
+            if (count != 0) {
+                rows.add(new Object[] { count, projectId, name });
+            }
+        }));
+        return rows;
+    }
+}
@@ -0,0 +1,216 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.OwnershipConflictException;
+import aiss.gitminer.exception.ProjectNotFoundException;
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Sincronización incremental: inserta o actualiza por id solo lo recibido, sin tocar el resto de colecciones del proyecto
+// El coste depende del tamaño del cambio, no del tamaño del proyecto
+// Un elemento que ya existe bajo otro proyecto (o un comentario bajo otra issue) no se mueve: se rechaza la sincronización (409)
+@Service
+public class ProjectSyncService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserService userService;
+    private final ProjectStatsService projectStatsService;
+    private final int batchSize;
+
+    @Autowired
+    public ProjectSyncService(UserService userService, ProjectStatsService projectStatsService,
+                              @Value("${gitminer.ingest.batch-size:500}") int batchSize) {
+        this.userService = userService;
+        this.projectStatsService = projectStatsService;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public SyncSummary sync(String projectId, ProjectDelta delta) throws ProjectNotFoundException, OwnershipConflictException {
+        Project project = entityManager.find(Project.class, projectId);
+        if (project == null) {
+            throw new ProjectNotFoundException();
+        }
+        SyncSummary summary = new SyncSummary();
+        summary.setProjectId(projectId);
+        summary.advanceWatermark(project.getSyncWatermark());
+
+        // Los usuarios van primero: las issues y comentarios solo guardan su id
+        UserInterner users = userService.newInterner();
+        for (Issue issue : nonNull(delta.getIssues())) {
+            UserService.internUsers(users, issue);
+        }
+        users.flush();
+
+        // Cada elemento existente resta su estado anterior de las estadísticas y suma el nuevo
+        ProjectStatsDelta stats = projectStatsService.newDelta();
+        for (List<Commit> chunk : chunks(nonNull(delta.getCommits()))) {
+            upsertCommits(projectId, chunk, summary, stats);
+            flushAndClear();
+        }
+        for (List<Issue> chunk : chunks(nonNull(delta.getIssues()))) {
+            upsertIssues(projectId, chunk, summary, stats);
+            flushAndClear();
+        }
+        projectStatsService.apply(stats);
+
+        project = entityManager.find(Project.class, projectId);
+        project.setSyncWatermark(summary.getWatermark());
+        return summary;
+    }
+
+    private void upsertCommits(String projectId, List<Commit> commits, SyncSummary summary, ProjectStatsDelta stats)
+            throws OwnershipConflictException {
+        // Una sola consulta por lote carga los que ya existen; el merge sobre ellos ya no necesita SELECT
+        Map<String, Commit> existing = findExisting(Commit.class, ids(commits, Commit::getId), Commit::getId);
+        for (Commit commit : commits) {
+            commit.setProjectId(projectId);
+            Commit current = existing.get(commit.getId());
+            if (current != null) {
+                checkOwner("Commit", current.getId(), current.getProjectId(), projectId);
+                stats.commit(current, -1);
+                entityManager.merge(commit);
+            } else {
+                entityManager.persist(commit);
+            }
+            stats.commit(commit, 1);
+            summary.incrementCommits();
+            summary.advanceWatermark(commit.getAuthoredDate());
+        }
+    }
+
+    private void upsertIssues(String projectId, List<Issue> issues, SyncSummary summary, ProjectStatsDelta stats)
+            throws OwnershipConflictException {
+        Map<String, Issue> existing = findExisting(Issue.class, ids(issues, Issue::getId), Issue::getId);
+        List<Comment> comments = new ArrayList<>();
+        for (Issue issue : issues) {
+            for (Comment comment : nonNull(issue.getComments())) {
+                comment.setIssueId(issue.getId());
+                comments.add(comment);
+            }
+            Issue current = existing.get(issue.getId());
+            if (current == null) {
+                // Los comentarios se guardan aparte con su issueId, como en la ingesta
+                issue.setComments(new ArrayList<>());
+                issue.setProjectId(projectId);
+                entityManager.persist(issue);
+                stats.issue(issue, 1);
+            } else {
+                checkOwner("Issue", current.getId(), current.getProjectId(), projectId);
+                stats.issue(current, -1);
+                // No se hace merge: reemplazaría la colección de comentarios por la del delta
+                Merging.copy(issue, current);
+                current.setProjectId(projectId);
+                stats.issue(current, 1);
+            }
+            summary.incrementIssues();
+            summary.advanceWatermark(issue.getUpdatedAt() != null ? issue.getUpdatedAt() : issue.getCreatedAt());
+        }
+        upsertComments(projectId, comments, summary, stats);
+    }
+
+    private void upsertComments(String projectId, List<Comment> comments, SyncSummary summary, ProjectStatsDelta stats)
+            throws OwnershipConflictException {
+        Map<String, Comment> existing = findExisting(Comment.class, ids(comments, Comment::getId), Comment::getId);
+        Set<String> issueIds = new HashSet<>();
+        for (Comment comment : comments) {
+            Comment current = existing.get(comment.getId());
+            issueIds.add(comment.getIssueId());
+            if (current != null) {
+                checkOwner("Comment", current.getId(), current.getIssueId(), comment.getIssueId());
+                // Copia sobre la entidad gestionada: un merge del comentario recibido (sin versión) se tomaría por obsoleto
+                stats.comment(projectId, current, -1);
+                Merging.copy(comment, current);
+                current.setIssueId(comment.getIssueId());
+                stats.comment(projectId, current, 1);
+            } else {
+                entityManager.persist(comment);
+                stats.comment(projectId, comment, 1);
+            }
+            summary.incrementComments();
+            summary.advanceWatermark(comment.getUpdatedAt() != null ? comment.getUpdatedAt() : comment.getCreatedAt());
+        }
+        refreshFirstComments(issueIds, stats);
+    }
+
+    // Fecha del primer comentario de las issues afectadas, con una sola consulta agrupada sobre el índice (issueId, createdAt)
+    // Las issues cuyo primer comentario cambia restan y suman de nuevo su tiempo hasta la primera respuesta
+    private void refreshFirstComments(Set<String> issueIds, ProjectStatsDelta stats) {
+        if (issueIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        Map<String, Instant> first = new HashMap<>();
+        entityManager.createQuery("SELECT c.issueId, MIN(c.createdAt) FROM Comment c WHERE c.issueId IN :ids GROUP BY c.issueId", Object[].class)
+                .setParameter("ids", issueIds)
+                .getResultList()
+                .forEach(row -> first.put((String) row[0], (Instant) row[1]));
+        for (Issue issue : findExisting(Issue.class, new ArrayList<>(issueIds), Issue::getId).values()) {
+            Instant value = first.get(issue.getId());
+            if (!Objects.equals(value, issue.getFirstCommentAt())) {
+                stats.issue(issue, -1);
+                issue.setFirstCommentAt(value);
+                stats.issue(issue, 1);
+            }
+        }
+    }
+
+    // Un propietario nulo (elemento desvinculado) se puede reclamar; uno distinto no
+    private static void checkOwner(String type, String id, String currentOwner, String owner) throws OwnershipConflictException {
+        if (currentOwner != null && !currentOwner.equals(owner)) {
+            throw new OwnershipConflictException(type + " " + id + " belongs to " + currentOwner);
+        }
+    }
+
+    private <T> Map<String, T> findExisting(Class<T> type, List<String> ids, Function<T, String> idOf) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        String query = "SELECT e FROM " + type.getSimpleName() + " e WHERE e.id IN :ids";
+        return entityManager.createQuery(query, type)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private static <T> List<String> ids(List<T> elements, Function<T, String> idOf) {
+        return elements.stream().map(idOf).collect(Collectors.toList());
+    }
+
+    private <T> List<List<T>> chunks(List<T> elements) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i += batchSize) {
+            chunks.add(elements.subList(i, Math.min(i + batchSize, elements.size())));
+        }
+        return chunks;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
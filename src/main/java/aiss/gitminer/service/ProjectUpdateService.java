@@ -0,0 +1,213 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.IssueNotFoundException;
+import aiss.gitminer.exception.PreconditionFailedException;
+import aiss.gitminer.exception.ProjectNotFoundException;
+import aiss.gitminer.exception.VersionConflictException;
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+// Actualizaciones con control de concurrencia optimista (@Version e If-Match)
+// En lugar de reemplazar las colecciones, se comparan con lo recibido por id: solo se escriben los elementos que han cambiado,
+// así dos actualizaciones del mismo proyecto que tocan issues distintas no se pisan ni se bloquean
+// Si un elemento cambiado llega con una versión que ya no es la actual, se rechaza la petición (409) para que el cliente reintente
+// La versión del padre se incrementa siempre (OPTIMISTIC_FORCE_INCREMENT), aunque solo cambien sus hijos: así el UPDATE de la versión
+// comprueba en la base de datos la misma versión que If-Match y dos PUT concurrentes sobre la misma versión no pueden pasar los dos
+@Service
+public class ProjectUpdateService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserService userService;
+    private final ProjectStatsService projectStatsService;
+
+    @Autowired
+    public ProjectUpdateService(UserService userService, ProjectStatsService projectStatsService) {
+        this.userService = userService;
+        this.projectStatsService = projectStatsService;
+    }
+
+    // expectedVersion: versión del proyecto en If-Match (null = sin condición)
+    // Las colecciones que no vienen en el cuerpo (null) se dejan como están; las que vienen son la lista completa
+    @Transactional(rollbackFor = Exception.class)
+    public Project update(String id, Project incoming, Long expectedVersion)
+            throws ProjectNotFoundException, PreconditionFailedException, VersionConflictException {
+        Project current = entityManager.find(Project.class, id);
+        if (current == null) {
+            throw new ProjectNotFoundException();
+        }
+        checkPrecondition(expectedVersion, current.getVersion());
+        entityManager.lock(current, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        userService.internUsers(incoming);
+
+        ProjectStatsDelta stats = projectStatsService.newDelta();
+        current.setName(incoming.getName());
+        current.setWebUrl(incoming.getWebUrl());
+        if (incoming.getCommits() != null) {
+            mergeCommits(current, incoming.getCommits(), stats);
+        }
+        if (incoming.getIssues() != null) {
+            mergeIssues(current, incoming.getIssues(), stats);
+        }
+        projectStatsService.apply(stats);
+        return current;
+    }
+
+    // Actualización de una sola issue (y sus comentarios) sin tocar el resto del proyecto
+    @Transactional(rollbackFor = Exception.class)
+    public Issue updateIssue(String id, Issue incoming, Long expectedVersion)
+            throws IssueNotFoundException, PreconditionFailedException, VersionConflictException {
+        Issue current = entityManager.find(Issue.class, id);
+        if (current == null) {
+            throw new IssueNotFoundException();
+        }
+        checkPrecondition(expectedVersion, current.getVersion());
+        entityManager.lock(current, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        UserInterner users = userService.newInterner();
+        UserService.internUsers(users, incoming);
+        users.flush();
+
+        ProjectStatsDelta stats = projectStatsService.newDelta();
+        if (!Merging.same(current, incoming)) {
+            stats.issue(current, -1);
+            Merging.copy(incoming, current);
+            stats.issue(current, 1);
+        }
+        if (incoming.getComments() != null) {
+            mergeComments(current, current.getProjectId(), incoming.getComments(), stats);
+        }
+        projectStatsService.apply(stats);
+        return current;
+    }
+
+    private void mergeCommits(Project project, List<Commit> incoming, ProjectStatsDelta stats) {
+        Map<String, Commit> remaining = byId(project.getCommits(), Commit::getId);
+        for (Commit commit : incoming) {
+            Commit current = remaining.remove(commit.getId());
+            if (current == null) {
+                commit.setProjectId(project.getId());
+                project.getCommits().add(commit);
+                stats.commit(commit, 1);
+            } else if (!Merging.same(current, commit)) {
+                stats.commit(current, -1);
+                Merging.copy(commit, current);
+                stats.commit(current, 1);
+            }
+        }
+        // Los que ya no vienen se borran: desvinculados (projectId a null) quedarían en la base de datos, en el índice de búsqueda y en los listados
+        for (Commit removed : remaining.values()) {
+            stats.commit(removed, -1);
+            entityManager.remove(removed);
+        }
+        removeAll(project.getCommits(), remaining.values());
+    }
+
+    private void mergeIssues(Project project, List<Issue> incoming, ProjectStatsDelta stats) throws VersionConflictException {
+        Map<String, Issue> remaining = byId(project.getIssues(), Issue::getId);
+        for (Issue issue : incoming) {
+            Issue current = remaining.remove(issue.getId());
+            if (current == null) {
+                issue.setProjectId(project.getId());
+                List<Comment> comments = issue.getComments() == null ? List.of() : issue.getComments();
+                for (Comment comment : comments) {
+                    comment.setIssueId(issue.getId());
+                }
+                issue.setFirstCommentAt(ProjectStatsDelta.firstCommentAt(comments));
+                project.getIssues().add(issue);
+                stats.issue(issue, 1);
+                stats.comments(project.getId(), comments, 1);
+                continue;
+            }
+            if (!Merging.same(current, issue)) {
+                if (Merging.isStale(issue.getExpectedVersion(), current.getVersion())) {
+                    throw new VersionConflictException("Issue " + current.getId() + " has been modified (current version " + current.getVersion() + ")");
+                }
+                stats.issue(current, -1);
+                Merging.copy(issue, current);
+                stats.issue(current, 1);
+            }
+            if (issue.getComments() != null) {
+                mergeComments(current, project.getId(), issue.getComments(), stats);
+            }
+        }
+        for (Issue removed : remaining.values()) {
+            stats.issue(removed, -1);
+            stats.comments(project.getId(), removed.getComments(), -1);
+            entityManager.remove(removed); // Sus comentarios y etiquetas se borran en cascada
+        }
+        removeAll(project.getIssues(), remaining.values());
+    }
+
+    private void mergeComments(Issue issue, String projectId, List<Comment> incoming, ProjectStatsDelta stats) throws VersionConflictException {
+        Map<String, Comment> remaining = byId(issue.getComments(), Comment::getId);
+        for (Comment comment : incoming) {
+            Comment current = remaining.remove(comment.getId());
+            if (current == null) {
+                comment.setIssueId(issue.getId());
+                issue.getComments().add(comment);
+                stats.comment(projectId, comment, 1);
+            } else if (!Merging.same(current, comment)) {
+                if (Merging.isStale(comment.getExpectedVersion(), current.getVersion())) {
+                    throw new VersionConflictException("Comment " + current.getId() + " has been modified (current version " + current.getVersion() + ")");
+                }
+                stats.comment(projectId, current, -1);
+                Merging.copy(comment, current);
+                stats.comment(projectId, current, 1);
+            }
+        }
+        for (Comment removed : remaining.values()) {
+            stats.comment(projectId, removed, -1);
+            entityManager.remove(removed);
+        }
+        removeAll(issue.getComments(), remaining.values());
+        // La colección ya tiene los comentarios finales: si cambia el primero, cambia el tiempo hasta la primera respuesta
+        Instant first = ProjectStatsDelta.firstCommentAt(issue.getComments());
+        if (!Objects.equals(first, issue.getFirstCommentAt())) {
+            stats.issue(issue, -1);
+            issue.setFirstCommentAt(first);
+            stats.issue(issue, 1);
+        }
+    }
+
+    private static void checkPrecondition(Long expectedVersion, Long currentVersion) throws PreconditionFailedException {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException();
+        }
+    }
+
+    private static <T> Map<String, T> byId(List<T> elements, Function<T, String> idOf) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (T element : elements == null ? Collections.<T>emptyList() : elements) {
+            byId.put(idOf.apply(element), element);
+        }
+        return byId;
+    }
+
+    // Las entidades comparan por identidad, así que un HashSet evita el coste cuadrático de List.removeAll
+    private static <T> void removeAll(List<T> elements, Collection<T> removed) {
+        if (elements != null && !removed.isEmpty()) {
+            Set<T> toRemove = new HashSet<>(removed);
+            elements.removeIf(toRemove::contains);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Resultado de una búsqueda: solo tipo, id y puntuación; el cliente recupera la entidad con su endpoint
+public class SearchHit {
+
+    @JsonProperty("type")
+    private final String type;
+    @JsonProperty("id")
+    private final String id;
+    @JsonProperty("score")
+    private final float score;
+
+    public SearchHit(String type, String id, float score) {
+        this.type = type;
+        this.id = id;
+        this.score = score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public float getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,81 @@
+package aiss.gitminer.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Listener JPA de Commit, Issue y Comment: mantiene el índice de búsqueda al día con cada escritura
+// Hibernate lo instancia a través de Spring (SpringBeanContainer), por eso puede recibir el SearchService
+public class SearchIndexListener {
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchIndexListener(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        track(entity, true);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        track(entity, false);
+    }
+
+    // Dentro de una transacción solo se anotan las claves afectadas; el índice se modifica después del commit,
+    // así una transacción deshecha no deja nada en él y no se ven documentos de datos sin confirmar
+    // Se guarda la clave y no el documento para que la memoria no crezca con el texto de las ingestas grandes
+    private void track(Object entity, boolean upsert) {
+        String key = SearchService.keyOf(entity);
+        if (key == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (upsert) {
+                searchService.index(entity);
+            } else {
+                searchService.delete(List.of(key));
+            }
+            searchService.commit();
+            return;
+        }
+        IndexSynchronization synchronization = (IndexSynchronization) TransactionSynchronizationManager.getResource(this);
+        if (synchronization == null) {
+            synchronization = new IndexSynchronization();
+            TransactionSynchronizationManager.bindResource(this, synchronization);
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+        // La última operación sobre cada clave es la que cuenta (p. ej. insertar y borrar en la misma transacción)
+        synchronization.operations.put(key, upsert);
+    }
+
+    private class IndexSynchronization implements TransactionSynchronization {
+        // clave -> true si hay que (re)indexarla, false si hay que quitarla
+        private final Map<String, Boolean> operations = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            List<String> upserts = new ArrayList<>();
+            List<String> deletes = new ArrayList<>();
+            operations.forEach((key, upsert) -> (upsert ? upserts : deletes).add(key));
+            searchService.apply(upserts, deletes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SearchIndexListener.this);
+        }
+    }
+}
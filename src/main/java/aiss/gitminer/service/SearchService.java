@@ -0,0 +1,284 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.exception.InvalidSearchQueryException;
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Índice invertido (Lucene) sobre los mensajes de commit, las descripciones de issue y los cuerpos de comentario
+// Se mantiene sincronizado con la base de datos desde SearchIndexListener, que le pasa las claves cambiadas en cada transacción confirmada
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final String COMMIT = "commit";
+    public static final String ISSUE = "issue";
+    public static final String COMMENT = "comment";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String TEXT = "text";
+    // Texto indexado de cada tipo: id y hasta dos columnas que se unen
+    private static final Map<String, String> SOURCES = Map.of(
+            COMMIT, "SELECT id, title, message FROM commit",
+            ISSUE, "SELECT id, title, description FROM issue",
+            COMMENT, "SELECT id, body, NULL FROM comment");
+    private static final int CHUNK_SIZE = 500;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // El gestor de transacciones depende del EntityManagerFactory, que crea el listener que usa este servicio: se resuelve al usarlo
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    // Sin ruta configurada el índice vive en memoria, igual que la base de datos H2 por defecto
+    @Autowired
+    public SearchService(@Value("${gitminer.search.index-path:}") String indexPath, JdbcTemplate jdbcTemplate,
+                         ObjectProvider<PlatformTransactionManager> transactionManager) throws IOException {
+        this.directory = indexPath.isEmpty() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionManager = transactionManager;
+    }
+
+    // Inserta o reemplaza el documento de la entidad (la clave es tipo:id, así que es idempotente)
+    public void index(Object entity) {
+        Document document = toDocument(entity);
+        if (document != null) {
+            index(document);
+        }
+    }
+
+    private void index(Document document) {
+        try {
+            writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Collection<String> keys) {
+        try {
+            for (String key : keys) {
+                writer.deleteDocuments(new Term(KEY, key));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Aplica los cambios de una transacción ya confirmada: los documentos se construyen con lo que hay confirmado en la base de datos,
+    // por lo que una clave que otra transacción haya borrado entretanto se quita del índice en lugar de reindexarse
+    public void apply(Collection<String> upserts, Collection<String> deletes) {
+        delete(deletes);
+        Map<String, List<String>> idsByType = new HashMap<>();
+        for (String key : upserts) {
+            int separator = key.indexOf(':');
+            idsByType.computeIfAbsent(key.substring(0, separator), type -> new ArrayList<>()).add(key.substring(separator + 1));
+        }
+        // Lectura en una transacción nueva: la que ha disparado el cambio ya está confirmada
+        readOnly(TransactionDefinition.PROPAGATION_REQUIRES_NEW).executeWithoutResult(status -> idsByType.forEach((type, ids) -> {
+            for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+                List<String> chunk = ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size()));
+                Set<String> found = new HashSet<>();
+                jdbcTemplate.query(SOURCES.get(type) + " WHERE id IN (:ids)", Map.of("ids", chunk), (RowCallbackHandler) rs -> {
+                    found.add(rs.getString(1));
+                    index(toDocument(type, rs.getString(1), join(rs.getString(2), rs.getString(3))));
+                });
+                for (String id : chunk) {
+                    if (!found.contains(id)) {
+                        delete(List.of(type + ":" + id));
+                    }
+                }
+            }
+        }));
+        commit();
+    }
+
+    // Un índice vacío con datos en la base de datos es el primer arranque con un índice en disco o un directorio perdido:
+    // se reconstruye entero antes de atender búsquedas
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            reindex();
+        }
+    }
+
+    public void reindex() {
+        long[] documents = { 0 };
+        readOnly(TransactionDefinition.PROPAGATION_REQUIRED).executeWithoutResult(status -> SOURCES.forEach((type, source) ->
+                jdbcTemplate.getJdbcTemplate().query(source, (RowCallbackHandler) rs -> {
+                    index(toDocument(type, rs.getString(1), join(rs.getString(2), rs.getString(3))));
+                    documents[0]++;
+                })));
+        commit();
+        if (documents[0] > 0) {
+            log.info("Search index rebuilt with {} documents", documents[0]);
+        }
+    }
+
+    // Hace durables los cambios (solo tiene efecto real con un índice en disco)
+    public void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public List<SearchHit> search(String text, List<String> types, int page, int size) throws InvalidSearchQueryException, IOException {
+        Query query;
+        try {
+            query = new QueryParser(TEXT, analyzer).parse(text);
+        } catch (ParseException e) {
+            throw new InvalidSearchQueryException(e.getMessage(), e);
+        }
+        if (types != null && !types.isEmpty()) {
+            BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+            for (String type : types) {
+                typeFilter.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.SHOULD);
+            }
+            query = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(typeFilter.build(), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+        // Las escrituras no refrescan el lector; se refresca aquí, y solo si ha habido cambios
+        // El escritor solo recibe cambios de transacciones confirmadas, así que nunca se ven datos sin confirmar
+        searcherManager.maybeRefresh();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            List<SearchHit> hits = new ArrayList<>();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                Document document = searcher.doc(scoreDocs[i].doc);
+                hits.add(new SearchHit(document.get(TYPE), document.get(ID), scoreDocs[i].score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public static String keyOf(Object entity) {
+        if (entity instanceof Commit) {
+            return COMMIT + ":" + ((Commit) entity).getId();
+        } else if (entity instanceof Issue) {
+            return ISSUE + ":" + ((Issue) entity).getId();
+        } else if (entity instanceof Comment) {
+            return COMMENT + ":" + ((Comment) entity).getId();
+        }
+        return null;
+    }
+
+    private Document toDocument(Object entity) {
+        String type;
+        String id;
+        String text;
+        if (entity instanceof Commit) {
+            Commit commit = (Commit) entity;
+            type = COMMIT;
+            id = commit.getId();
+            text = join(commit.getTitle(), commit.getMessage());
+        } else if (entity instanceof Issue) {
+            Issue issue = (Issue) entity;
+            type = ISSUE;
+            id = issue.getId();
+            text = join(issue.getTitle(), issue.getDescription());
+        } else if (entity instanceof Comment) {
+            Comment comment = (Comment) entity;
+            type = COMMENT;
+            id = comment.getId();
+            text = comment.getBody();
+        } else {
+            return null;
+        }
+        return toDocument(type, id, text);
+    }
+
+    private static Document toDocument(String type, String id, String text) {
+        Document document = new Document();
+        document.add(new StringField(KEY, type + ":" + id, Field.Store.YES));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StoredField(ID, id));
+        // El texto no se guarda en el índice, solo sus términos: el contenido ya está en la base de datos
+        document.add(new TextField(TEXT, text == null ? "" : text, Field.Store.NO));
+        return document;
+    }
+
+    private static String join(String title, String body) {
+        if (title == null) {
+            return body;
+        }
+        return body == null ? title : title + "\n" + body;
+    }
+
+    private TransactionTemplate readOnly(int propagation) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager.getObject());
+        template.setPropagationBehavior(propagation);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
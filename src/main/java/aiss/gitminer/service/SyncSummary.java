@@ -0,0 +1,63 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+// Resultado de una sincronización incremental: elementos insertados/actualizados y la nueva marca de agua
+public class SyncSummary {
+
+    @JsonProperty("project_id")
+    private String projectId;
+    @JsonProperty("commits")
+    private long commits;
+    @JsonProperty("issues")
+    private long issues;
+    @JsonProperty("comments")
+    private long comments;
+    @JsonProperty("watermark")
+    private Instant watermark;
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public void incrementCommits() {
+        this.commits++;
+    }
+
+    public long getIssues() {
+        return issues;
+    }
+
+    public void incrementIssues() {
+        this.issues++;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void incrementComments() {
+        this.comments++;
+    }
+
+    public Instant getWatermark() {
+        return watermark;
+    }
+
+    // La marca de agua solo avanza
+    public void advanceWatermark(Instant instant) {
+        if (instant != null && (watermark == null || instant.isAfter(watermark))) {
+            watermark = instant;
+        }
+    }
+}
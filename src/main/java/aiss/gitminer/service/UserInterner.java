@@ -0,0 +1,73 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.config.ChangeTracker;
+import aiss.gitminer.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Internado de usuarios dentro de una petición: la primera aparición de cada id se encola para el upsert,
+// y todas las apariciones se sustituyen por una referencia (proxy) que no consulta la base de datos
+public class UserInterner {
+
+    // Upsert por clave primaria: los campos que no vienen (null) conservan el valor guardado
+    // (MERGE ... KEY sobrescribiría todas las columnas y una referencia con solo id y username borraría el nombre y el avatar)
+    private static final String UPSERT =
+            "MERGE INTO gmuser g USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), " +
+            "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) s (id, username, name, avatar_url, web_url) ON g.id = s.id " +
+            "WHEN MATCHED THEN UPDATE SET username = COALESCE(s.username, g.username), name = COALESCE(s.name, g.name), " +
+            "avatar_url = COALESCE(s.avatar_url, g.avatar_url), web_url = COALESCE(s.web_url, g.web_url) " +
+            "WHEN NOT MATCHED THEN INSERT (id, username, name, avatar_url, web_url) " +
+            "VALUES (s.id, s.username, s.name, s.avatar_url, s.web_url)";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    private final Set<String> seen = new HashSet<>();
+    private final List<User> pending = new ArrayList<>();
+
+    UserInterner(EntityManager entityManager, JdbcTemplate jdbcTemplate, Validator validator) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+    }
+
+    public User intern(User user) {
+        if (user == null) {
+            return null;
+        }
+        // Un usuario sin id no se puede referenciar: la validación lo rechaza (400) en lugar de dejar la relación a null
+        if (user.getId() == null || seen.add(user.getId())) {
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            pending.add(user);
+        }
+        return entityManager.getReference(User.class, user.getId());
+    }
+
+    // Escribe los usuarios pendientes en un único lote JDBC; debe llamarse antes de volcar las issues y comentarios que los referencian
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (User user : pending) {
+            rows.add(new Object[] { user.getId(), user.getUsername(), user.getName(), user.getAvatarUrl(), user.getWebUrl() });
+            // El MERGE no pasa por Hibernate: se invalida la copia que pudiera haber en la caché de segundo nivel
+            entityManager.getEntityManagerFactory().getCache().evict(User.class, user.getId());
+        }
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+        ChangeTracker.touched("gmuser"); // El MERGE tampoco pasa por el StatementInspector de Hibernate
+        pending.clear();
+    }
+}
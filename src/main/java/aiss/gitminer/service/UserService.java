@@ -0,0 +1,58 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Issue;
+import aiss.gitminer.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.Validator;
+
+// Los usuarios son una dimensión compartida: cada usuario distinto se escribe una sola vez por petición
+// (MERGE por lotes) y las issues y comentarios solo guardan la referencia a su id
+@Service
+public class UserService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    @Autowired
+    public UserService(JdbcTemplate jdbcTemplate, Validator validator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+    }
+
+    // Cada petición (o ingesta) usa su propio UserInterner
+    public UserInterner newInterner() {
+        return new UserInterner(entityManager, jdbcTemplate, validator);
+    }
+
+    // Sustituye los usuarios de las issues y comentarios del proyecto por referencias, tras guardarlos una vez cada uno
+    @Transactional(rollbackFor = Exception.class)
+    public void internUsers(Project project) {
+        UserInterner interner = newInterner();
+        if (project.getIssues() != null) {
+            for (Issue issue : project.getIssues()) {
+                internUsers(interner, issue);
+            }
+        }
+        interner.flush();
+    }
+
+    public static void internUsers(UserInterner interner, Issue issue) {
+        issue.setAuthor(interner.intern(issue.getAuthor()));
+        issue.setAssignee(interner.intern(issue.getAssignee()));
+        if (issue.getComments() != null) {
+            for (Comment comment : issue.getComments()) {
+                comment.setAuthor(interner.intern(comment.getAuthor()));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+-- Esquema inicial de GitMiner (perfil prod). Refleja el mapeo JPA de los modelos;
+-- cualquier cambio en las entidades debe ir acompañado de una nueva migración V<n>__*.sql
+
+CREATE TABLE project (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    web_url VARCHAR(255)
+);
+
+CREATE TABLE gmuser (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    username VARCHAR(255),
+    name VARCHAR(255),
+    avatar_url VARCHAR(255),
+    web_url VARCHAR(255)
+);
+
+CREATE TABLE commit (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    title VARCHAR(255),
+    message CLOB,
+    author_name VARCHAR(255),
+    author_email VARCHAR(255),
+    authored_date TIMESTAMP,
+    web_url VARCHAR(255),
+    project_id VARCHAR(255),
+    CONSTRAINT fk_commit_project FOREIGN KEY (project_id) REFERENCES project (id)
+);
+CREATE INDEX idx_commit_authored_date ON commit (authored_date);
+CREATE INDEX idx_commit_project_authored_date ON commit (project_id, authored_date);
+
+CREATE TABLE issue (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    title VARCHAR(255),
+    description CLOB,
+    state VARCHAR(255),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    closed_at TIMESTAMP,
+    author_id VARCHAR(255),
+    assignee_id VARCHAR(255),
+    votes INTEGER,
+    project_id VARCHAR(255),
+    CONSTRAINT fk_issue_project FOREIGN KEY (project_id) REFERENCES project (id),
+    CONSTRAINT fk_issue_author FOREIGN KEY (author_id) REFERENCES gmuser (id),
+    CONSTRAINT fk_issue_assignee FOREIGN KEY (assignee_id) REFERENCES gmuser (id)
+);
+CREATE INDEX idx_issue_created_at ON issue (created_at);
+CREATE INDEX idx_issue_updated_at ON issue (updated_at);
+CREATE INDEX idx_issue_project_created_at ON issue (project_id, created_at);
+CREATE INDEX idx_issue_state_author ON issue (state, author_id);
+CREATE INDEX idx_issue_state_assignee ON issue (state, assignee_id);
+CREATE INDEX idx_issue_state_created_at ON issue (state, created_at);
+CREATE INDEX idx_issue_author ON issue (author_id);
+CREATE INDEX idx_issue_assignee ON issue (assignee_id);
+CREATE INDEX idx_issue_votes ON issue (votes);
+
+CREATE TABLE issue_labels (
+    issue_id VARCHAR(255) NOT NULL,
+    labels VARCHAR(255),
+    CONSTRAINT fk_issue_labels_issue FOREIGN KEY (issue_id) REFERENCES issue (id)
+);
+
+CREATE TABLE comment (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    body CLOB,
+    author_id VARCHAR(255),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    issue_id VARCHAR(255),
+    CONSTRAINT fk_comment_issue FOREIGN KEY (issue_id) REFERENCES issue (id),
+    CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES gmuser (id)
+);
+CREATE INDEX idx_comment_created_at ON comment (created_at);
+CREATE INDEX idx_comment_issue_created_at ON comment (issue_id, created_at);
@@ -0,0 +1,2 @@
+-- Marca de agua de la sincronización incremental de proyectos (POST /gitminer/projects/{id}/sync)
+ALTER TABLE project ADD COLUMN sync_watermark TIMESTAMP;
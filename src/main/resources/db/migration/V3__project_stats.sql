@@ -0,0 +1,50 @@
+-- Estadísticas por proyecto mantenidas de forma incremental (ProjectStatsService)
+
+CREATE TABLE project_stats (
+    project_id VARCHAR(255) NOT NULL PRIMARY KEY,
+    commits BIGINT NOT NULL,
+    open_issues BIGINT NOT NULL,
+    closed_issues BIGINT NOT NULL,
+    closed_duration_seconds BIGINT NOT NULL,
+    closed_duration_count BIGINT NOT NULL,
+    comments BIGINT NOT NULL
+);
+
+CREATE TABLE project_author_stats (
+    project_id VARCHAR(255) NOT NULL,
+    author_name VARCHAR(255) NOT NULL,
+    commits BIGINT NOT NULL,
+    PRIMARY KEY (project_id, author_name)
+);
+CREATE INDEX idx_author_stats_project_commits ON project_author_stats (project_id, commits);
+
+CREATE TABLE project_label_stats (
+    project_id VARCHAR(255) NOT NULL,
+    label VARCHAR(255) NOT NULL,
+    issues BIGINT NOT NULL,
+    PRIMARY KEY (project_id, label)
+);
+CREATE INDEX idx_label_stats_project_issues ON project_label_stats (project_id, issues);
+
+-- Carga inicial a partir de los datos ya existentes; a partir de aquí solo se aplican diferencias
+INSERT INTO project_stats (project_id, commits, open_issues, closed_issues, closed_duration_seconds, closed_duration_count, comments)
+SELECT p.id,
+       (SELECT COUNT(*) FROM commit c WHERE c.project_id = p.id),
+       (SELECT COUNT(*) FROM issue i WHERE i.project_id = p.id AND (i.state IS NULL OR LOWER(i.state) <> 'closed')),
+       (SELECT COUNT(*) FROM issue i WHERE i.project_id = p.id AND LOWER(i.state) = 'closed'),
+       (SELECT COALESCE(SUM(DATEDIFF('SECOND', i.created_at, i.closed_at)), 0) FROM issue i WHERE i.project_id = p.id
+            AND LOWER(i.state) = 'closed' AND i.created_at IS NOT NULL AND i.closed_at IS NOT NULL),
+       (SELECT COUNT(*) FROM issue i WHERE i.project_id = p.id
+            AND LOWER(i.state) = 'closed' AND i.created_at IS NOT NULL AND i.closed_at IS NOT NULL),
+       (SELECT COUNT(*) FROM comment m JOIN issue i ON m.issue_id = i.id WHERE i.project_id = p.id)
+FROM project p;
+
+INSERT INTO project_author_stats (project_id, author_name, commits)
+SELECT project_id, author_name, COUNT(*) FROM commit
+WHERE project_id IS NOT NULL AND author_name IS NOT NULL
+GROUP BY project_id, author_name;
+
+INSERT INTO project_label_stats (project_id, label, issues)
+SELECT i.project_id, l.labels, COUNT(DISTINCT l.issue_id) FROM issue_labels l JOIN issue i ON l.issue_id = i.id
+WHERE i.project_id IS NOT NULL AND l.labels IS NOT NULL
+GROUP BY i.project_id, l.labels;
@@ -0,0 +1,6 @@
+-- Columnas de versión para el control de concurrencia optimista (@Version en Project, Issue y Comment)
+-- Las filas existentes empiezan en 0, igual que las que inserta Hibernate
+
+ALTER TABLE project ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE issue ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE comment ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,4 @@
+-- Índice de etiquetas para los filtros anyLabels/allLabels de /issues
+-- Empieza por la etiqueta para localizar directamente las issues que la tienen, e incluye issue_id para no tener que leer la tabla
+
+CREATE INDEX idx_issue_labels_label ON issue_labels (labels, issue_id);
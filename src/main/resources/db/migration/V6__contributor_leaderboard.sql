@@ -0,0 +1,12 @@
+-- Clasificación de contribuidores: fechas del primer y último commit de cada autor en el agregado,
+-- e índices para agrupar los commits de una ventana de tiempo y recalcular las fechas de un autor
+
+ALTER TABLE project_author_stats ADD COLUMN first_commit_at TIMESTAMP;
+ALTER TABLE project_author_stats ADD COLUMN last_commit_at TIMESTAMP;
+
+CREATE INDEX idx_commit_project_date_author ON commit (project_id, authored_date, author_name);
+CREATE INDEX idx_commit_project_author_date ON commit (project_id, author_name, authored_date);
+
+UPDATE project_author_stats s SET
+    first_commit_at = (SELECT MIN(c.authored_date) FROM commit c WHERE c.project_id = s.project_id AND c.author_name = s.author_name),
+    last_commit_at = (SELECT MAX(c.authored_date) FROM commit c WHERE c.project_id = s.project_id AND c.author_name = s.author_name);
@@ -0,0 +1,37 @@
+-- Actividad por proyecto en intervalos de un día, una semana ISO y un mes (UTC), mantenida de forma incremental (ProjectStatsService)
+
+CREATE TABLE project_activity (
+    project_id VARCHAR(255) NOT NULL,
+    bucket VARCHAR(255) NOT NULL,
+    bucket_start DATE NOT NULL,
+    commits BIGINT NOT NULL,
+    issues_opened BIGINT NOT NULL,
+    issues_closed BIGINT NOT NULL,
+    comments BIGINT NOT NULL,
+    PRIMARY KEY (project_id, bucket, bucket_start)
+);
+
+-- Carga inicial: días a partir de los datos existentes, y semanas y meses a partir de los días
+INSERT INTO project_activity (project_id, bucket, bucket_start, commits, issues_opened, issues_closed, comments)
+SELECT project_id, 'day', bucket_start, SUM(commits), SUM(issues_opened), SUM(issues_closed), SUM(comments) FROM (
+    SELECT project_id, CAST(authored_date AS DATE) AS bucket_start, 1 AS commits, 0 AS issues_opened, 0 AS issues_closed, 0 AS comments
+    FROM commit WHERE project_id IS NOT NULL AND authored_date IS NOT NULL
+    UNION ALL SELECT project_id, CAST(created_at AS DATE), 0, 1, 0, 0 FROM issue
+    WHERE project_id IS NOT NULL AND created_at IS NOT NULL
+    UNION ALL SELECT project_id, CAST(closed_at AS DATE), 0, 0, 1, 0 FROM issue
+    WHERE project_id IS NOT NULL AND LOWER(state) = 'closed' AND closed_at IS NOT NULL
+    UNION ALL SELECT i.project_id, CAST(m.created_at AS DATE), 0, 0, 0, 1 FROM comment m JOIN issue i ON m.issue_id = i.id
+    WHERE i.project_id IS NOT NULL AND m.created_at IS NOT NULL
+) e GROUP BY project_id, bucket_start;
+
+INSERT INTO project_activity (project_id, bucket, bucket_start, commits, issues_opened, issues_closed, comments)
+SELECT project_id, 'week', CAST(DATE_TRUNC('ISO_WEEK', bucket_start) AS DATE),
+       SUM(commits), SUM(issues_opened), SUM(issues_closed), SUM(comments)
+FROM project_activity WHERE bucket = 'day'
+GROUP BY project_id, CAST(DATE_TRUNC('ISO_WEEK', bucket_start) AS DATE);
+
+INSERT INTO project_activity (project_id, bucket, bucket_start, commits, issues_opened, issues_closed, comments)
+SELECT project_id, 'month', CAST(DATE_TRUNC('MONTH', bucket_start) AS DATE),
+       SUM(commits), SUM(issues_opened), SUM(issues_closed), SUM(comments)
+FROM project_activity WHERE bucket = 'day'
+GROUP BY project_id, CAST(DATE_TRUNC('MONTH', bucket_start) AS DATE);
@@ -0,0 +1,48 @@
+-- Métricas del ciclo de vida de las issues: fecha del primer comentario en la issue
+-- e histogramas de duraciones (tiempo hasta el cierre y hasta la primera respuesta) por proyecto y etiqueta
+
+ALTER TABLE issue ADD COLUMN first_comment_at TIMESTAMP;
+UPDATE issue i SET first_comment_at = (SELECT MIN(m.created_at) FROM comment m WHERE m.issue_id = i.id);
+
+CREATE TABLE project_lifecycle_histogram (
+    project_id VARCHAR(255) NOT NULL,
+    label VARCHAR(255) NOT NULL,
+    metric VARCHAR(255) NOT NULL,
+    bucket INT NOT NULL,
+    issues BIGINT NOT NULL,
+    PRIMARY KEY (project_id, label, metric, bucket)
+);
+
+-- Carga inicial con el mismo cálculo de intervalos que LifecycleHistogram.bucket (ver ProjectStatsService.lifecycleHistogram)
+INSERT INTO project_lifecycle_histogram (project_id, label, metric, bucket, issues)
+SELECT project_id, label, metric, bucket, COUNT(*) FROM (
+    SELECT project_id, label, metric,
+           CASE WHEN seconds < 16 THEN seconds ELSE (e - 3) * 16 + MOD(CAST(FLOOR(seconds / POWER(2, e - 4)) AS BIGINT), 16) END AS bucket
+    FROM (
+        SELECT project_id, label, metric, seconds,
+               e0 - CASE WHEN POWER(2, e0) > seconds THEN 1 ELSE 0 END + CASE WHEN POWER(2, e0 + 1) <= seconds THEN 1 ELSE 0 END AS e
+        FROM (
+            SELECT project_id, label, metric, seconds,
+                   CASE WHEN seconds < 16 THEN 4 ELSE CAST(FLOOR(LN(seconds) / LN(2)) AS INT) END AS e0
+            FROM (
+                SELECT i.project_id, '' AS label, 'close' AS metric,
+                       GREATEST(DATEDIFF('SECOND', i.created_at, i.closed_at), 0) AS seconds
+                FROM issue i
+                WHERE i.project_id IS NOT NULL AND LOWER(i.state) = 'closed' AND i.created_at IS NOT NULL AND i.closed_at IS NOT NULL
+                UNION ALL
+                SELECT i.project_id, l.labels, 'close', GREATEST(DATEDIFF('SECOND', i.created_at, i.closed_at), 0)
+                FROM issue i JOIN (SELECT DISTINCT issue_id, labels FROM issue_labels WHERE labels IS NOT NULL) l ON l.issue_id = i.id
+                WHERE i.project_id IS NOT NULL AND LOWER(i.state) = 'closed' AND i.created_at IS NOT NULL AND i.closed_at IS NOT NULL
+                UNION ALL
+                SELECT i.project_id, '', 'first_response', GREATEST(DATEDIFF('SECOND', i.created_at, i.first_comment_at), 0)
+                FROM issue i
+                WHERE i.project_id IS NOT NULL AND i.created_at IS NOT NULL AND i.first_comment_at IS NOT NULL
+                UNION ALL
+                SELECT i.project_id, l.labels, 'first_response', GREATEST(DATEDIFF('SECOND', i.created_at, i.first_comment_at), 0)
+                FROM issue i JOIN (SELECT DISTINCT issue_id, labels FROM issue_labels WHERE labels IS NOT NULL) l ON l.issue_id = i.id
+                WHERE i.project_id IS NOT NULL AND i.created_at IS NOT NULL AND i.first_comment_at IS NOT NULL
+            ) d0
+        ) d1
+    ) d2
+) d3
+GROUP BY project_id, label, metric, bucket;
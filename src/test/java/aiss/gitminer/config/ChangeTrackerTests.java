@@ -0,0 +1,42 @@
+package aiss.gitminer.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeTrackerTests {
+
+    @Test
+    void writesOnlyChangeTheirTable() {
+        String other = ChangeTracker.version("tracker_other");
+        String before = ChangeTracker.version("tracker_a");
+
+        ChangeTracker.statement("insert into TRACKER_A (id) values (?)");
+        ChangeTracker.statement("select * from tracker_other");
+
+        assertThat(ChangeTracker.version("tracker_a")).isNotEqualTo(before);
+        assertThat(ChangeTracker.version("tracker_other")).isEqualTo(other);
+    }
+
+    @Test
+    void transactionalWritesChangeAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ChangeTracker.touched("tracker_b", "tracker_c");
+            ChangeTracker.touched("tracker_b");
+            // Una lectura concurrente con la escritura en curso queda asociada a esta generación...
+            String during = ChangeTracker.version("tracker_b", "tracker_c");
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+
+            // ...y no a la que queda tras el commit
+            assertThat(ChangeTracker.version("tracker_b", "tracker_c")).isNotEqualTo(during);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
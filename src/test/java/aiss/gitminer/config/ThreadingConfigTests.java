@@ -0,0 +1,38 @@
+package aiss.gitminer.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadingConfigTests {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(ThreadingConfig.class);
+
+    @Test
+    void platformModeDoesNotCreateAnExecutor() {
+        runner.run(context -> assertThat(context).doesNotHaveBean("virtualThreadExecutor"));
+    }
+
+    @Test
+    void virtualModeExecutorIsShutDownWithTheContext() {
+        AtomicReference<ExecutorService> executor = new AtomicReference<>();
+        runner.withPropertyValues("gitminer.threads.mode=virtual").run(context -> {
+            if (Runtime.version().feature() < 21) {
+                // En Java 17 el arranque falla con un mensaje claro en lugar de quedarse con hilos del sistema
+                assertThat(context).hasFailed();
+                assertThat(context.getStartupFailure()).hasStackTraceContaining("gitminer.threads.mode=virtual requires Java 21 or later");
+                return;
+            }
+            executor.set(context.getBean("virtualThreadExecutor", ExecutorService.class));
+            assertThat(executor.get().isShutdown()).isFalse();
+        });
+        if (executor.get() != null) {
+            assertThat(executor.get().isShutdown()).isTrue();
+        }
+    }
+}
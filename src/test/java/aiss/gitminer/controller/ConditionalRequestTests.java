@@ -0,0 +1,97 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private void createProject(String id) throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + id + "\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"commits\":[{\"id\":\"" + id + "-c1\",\"title\":\"First\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}]," +
+                                "\"issues\":[{\"id\":\"" + id + "-i1\",\"title\":\"Bug\",\"state\":\"opened\"}]}"))
+                .andExpect(status().isCreated());
+    }
+
+    private String etag(String uri) throws Exception {
+        String etag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    private int revalidate(String uri, String etag) throws Exception {
+        return mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+    }
+
+    @Test
+    void singleResourceEtagFollowsItsVersion() throws Exception {
+        createProject("etag-p1");
+        String project = etag("/gitminer/projects/etag-p1");
+        String expanded = etag("/gitminer/projects/etag-p1?expand=issues");
+        assertThat(revalidate("/gitminer/projects/etag-p1", project)).isEqualTo(304);
+
+        // Escrituras en otros proyectos y en los hijos no cambian el ETag del proyecto sin expand
+        createProject("etag-p2");
+        mockMvc.perform(put("/gitminer/issues/etag-p1-i1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"etag-p1-i1\",\"title\":\"Renamed\",\"state\":\"opened\"}"))
+                .andExpect(status().isOk());
+        assertThat(revalidate("/gitminer/projects/etag-p1", project)).isEqualTo(304);
+        // Con expand=issues la respuesta incluye la issue modificada
+        assertThat(revalidate("/gitminer/projects/etag-p1?expand=issues", expanded)).isEqualTo(200);
+
+        mockMvc.perform(put("/gitminer/projects/etag-p1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"etag-p1\",\"name\":\"Renamed\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isOk());
+        assertThat(revalidate("/gitminer/projects/etag-p1", project)).isEqualTo(200);
+    }
+
+    @Test
+    void collectionEtagChangesWithItsTables() throws Exception {
+        createProject("etag-p3");
+        String commits = etag("/gitminer/commits");
+        String stats = etag("/gitminer/projects/etag-p3/stats");
+        assertThat(revalidate("/gitminer/commits", commits)).isEqualTo(304);
+
+        // Cambiar una issue no toca ni la tabla de commits ni las estadísticas (sigue abierta)
+        mockMvc.perform(put("/gitminer/issues/etag-p3-i1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"etag-p3-i1\",\"title\":\"Renamed\",\"state\":\"opened\"}"))
+                .andExpect(status().isOk());
+        assertThat(revalidate("/gitminer/commits", commits)).isEqualTo(304);
+
+        createProject("etag-p4");
+        assertThat(revalidate("/gitminer/commits", commits)).isEqualTo(200);
+        assertThat(revalidate("/gitminer/projects/etag-p3/stats", stats)).isEqualTo(200);
+    }
+
+    @Test
+    void missingResourceHasNoEtag() throws Exception {
+        mockMvc.perform(get("/gitminer/projects/etag-missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
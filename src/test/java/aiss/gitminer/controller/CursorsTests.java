@@ -0,0 +1,89 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.exception.InvalidCursorException;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CursorsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void cursorRoundTripsAnyId() throws Exception {
+        for (String id : List.of("1", "gitlab-123", "ñandú/ü?&=", "a".repeat(300))) {
+            String cursor = Cursors.encode(id);
+            // Se puede poner tal cual en la query string
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(Cursors.decode(cursor, null)).isEqualTo(id);
+        }
+        assertThat(Cursors.decode("", null)).isNull();
+    }
+
+    @Test
+    void invalidCursorsAreRejected() {
+        assertThatThrownBy(() -> Cursors.decode("not base64!", null)).isInstanceOf(InvalidCursorException.class);
+        // El cursor siempre ordena por id
+        assertThatThrownBy(() -> Cursors.decode(Cursors.encode("1"), "name")).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void headersOnlyCarryTheNextCursorInKeysetMode() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+        HttpHeaders keyset = Cursors.headers(slice, true, Function.identity(), 7L);
+        assertThat(keyset.getFirst(Cursors.NEXT_CURSOR_HEADER)).isEqualTo(Cursors.encode("b"));
+        assertThat(keyset.getFirst(Cursors.TOTAL_COUNT_HEADER)).isEqualTo("7");
+
+        HttpHeaders offset = Cursors.headers(slice, false, Function.identity(), null);
+        assertThat(offset).isEmpty();
+        HttpHeaders last = Cursors.headers(new SliceImpl<>(List.of("c"), PageRequest.of(0, 2), false), true, Function.identity(), null);
+        assertThat(last.containsKey(Cursors.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void pagesWalkAllProjectsOnce() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/gitminer/projects")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"id\":\"cursor-p" + i + "\",\"name\":\"Project\",\"web_url\":\"http://x\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        // Se recorren todas las páginas de 2 en 2 y se quedan solo los proyectos de esta prueba (la base de datos es compartida)
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult page = mockMvc.perform(get("/gitminer/projects").param("after", cursor).param("size", "2").param("fields", "id"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<String> ids = JsonPath.read(page.getResponse().getContentAsString(), "$[*].id");
+            ids.stream().filter(id -> id.startsWith("cursor-p")).forEach(seen::add);
+            cursor = page.getResponse().getHeader(Cursors.NEXT_CURSOR_HEADER);
+        }
+        assertThat(seen).containsExactly("cursor-p0", "cursor-p1", "cursor-p2", "cursor-p3", "cursor-p4");
+
+        mockMvc.perform(get("/gitminer/projects").param("after", "").param("order", "name"))
+                .andExpect(status().isBadRequest());
+    }
+}
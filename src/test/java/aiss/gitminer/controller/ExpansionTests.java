@@ -0,0 +1,55 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpansionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void createProject() throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"expand-p\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                        "\"issues\":[{\"id\":\"expand-i1\",\"title\":\"Bug\",\"state\":\"opened\",\"labels\":[\"bug\"]," +
+                        "\"author\":{\"id\":\"expand-u1\",\"username\":\"ana\"}," +
+                        "\"comments\":[{\"id\":\"expand-m1\",\"body\":\"Hi\",\"created_at\":\"2023-01-03T00:00:00Z\"," +
+                        "\"author\":{\"id\":\"expand-u2\",\"username\":\"bob\"}}]}]}"));
+    }
+
+    @Test
+    void withoutExpandNoRelationIsSerialized() throws Exception {
+        mockMvc.perform(get("/gitminer/projects/expand-p"))
+                .andExpect(jsonPath("$.name").value("Project"))
+                .andExpect(jsonPath("$.commits").doesNotExist())
+                .andExpect(jsonPath("$.issues").doesNotExist());
+    }
+
+    @Test
+    void commentAuthorsFollowTheAuthorRelation() throws Exception {
+        mockMvc.perform(get("/gitminer/projects/expand-p?expand=issues,comments"))
+                .andExpect(jsonPath("$.issues", hasSize(1)))
+                .andExpect(jsonPath("$.issues[0].author").doesNotExist())
+                .andExpect(jsonPath("$.issues[0].labels").doesNotExist())
+                .andExpect(jsonPath("$.issues[0].comments[0].body").value("Hi"))
+                .andExpect(jsonPath("$.issues[0].comments[0].author").doesNotExist());
+
+        mockMvc.perform(get("/gitminer/projects/expand-p?expand=issues,comments,author"))
+                .andExpect(jsonPath("$.issues[0].author.username").value("ana"))
+                .andExpect(jsonPath("$.issues[0].comments[0].author.username").value("bob"));
+    }
+}
@@ -0,0 +1,99 @@
+package aiss.gitminer.controller;
+
+import aiss.gitminer.service.IngestJobService;
+import aiss.gitminer.service.IngestSummary;
+import aiss.gitminer.service.ProjectIngestService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "gitminer.ingest.async.workers=1",
+        "gitminer.ingest.async.queue-capacity=1",
+        "gitminer.ingest.async.retry-after-seconds=7",
+        "gitminer.ingest.async.shutdown-timeout-seconds=1",
+        "gitminer.ingest.async.spool-dir=${java.io.tmpdir}/gitminer-ingest-job-tests"
+})
+@AutoConfigureMockMvc
+class IngestJobTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private IngestJobService ingestJobService;
+    // La ingesta queda bloqueada hasta que se interrumpe: así el worker está ocupado y la cola se llena
+    @MockBean
+    private ProjectIngestService projectIngestService;
+
+    private MvcResult submit() throws Exception {
+        return mockMvc.perform(post("/gitminer/projects/ingest/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"job\",\"name\":\"Project\",\"web_url\":\"http://x\"}"))
+                .andReturn();
+    }
+
+    // El cuerpo se copia al spool en otro hilo: la respuesta 202 llega en el dispatch asíncrono
+    private String accepted(MvcResult submitted) throws Exception {
+        assertThat(submitted.getRequest().isAsyncStarted()).isTrue();
+        String body = mockMvc.perform(asyncDispatch(submitted))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.id");
+    }
+
+    @Test
+    void fullQueueIsRejectedAndShutdownFailsQueuedJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(projectIngestService.ingest(any(InputStream.class), any(IngestSummary.class))).thenAnswer(invocation -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        });
+
+        String runningId = accepted(submit());
+        started.await();
+        String queuedId = accepted(submit());
+
+        mockMvc.perform(post("/gitminer/projects/ingest/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+
+        ingestJobService.shutdown();
+
+        mockMvc.perform(get("/gitminer/projects/ingest/jobs/" + queuedId))
+                .andExpect(jsonPath("$.status").value("FAILED"));
+        mockMvc.perform(get("/gitminer/projects/ingest/jobs/" + runningId))
+                .andExpect(jsonPath("$.status").value("FAILED"));
+        Path spool = Paths.get(System.getProperty("java.io.tmpdir"), "gitminer-ingest-job-tests");
+        try (Stream<Path> files = Files.list(spool)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
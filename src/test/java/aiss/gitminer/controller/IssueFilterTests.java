@@ -0,0 +1,81 @@
+package aiss.gitminer.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IssueFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static String issue(String id, String state, String author, String assignee, int votes, String createdAt) {
+        return "{\"id\":\"" + id + "\",\"title\":\"Issue\",\"state\":\"" + state + "\",\"votes\":" + votes +
+                ",\"created_at\":\"" + createdAt + "\",\"labels\":[\"bug\",\"ui\"]" +
+                ",\"author\":{\"id\":\"" + author + "\",\"username\":\"" + author + "\"}" +
+                (assignee == null ? "" : ",\"assignee\":{\"id\":\"" + assignee + "\",\"username\":\"" + assignee + "\"}") + "}";
+    }
+
+    // Fechas en 2091 y usuarios propios: ningún otro test crea issues que pasen estos filtros (la base de datos es compartida)
+    @BeforeEach
+    void createProject() throws Exception {
+        if (mockMvc.perform(get("/gitminer/projects/filter-p")).andReturn().getResponse().getStatus() == 200) {
+            return;
+        }
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"filter-p\",\"name\":\"Project\",\"web_url\":\"http://x\",\"issues\":[" +
+                                issue("filter-1", "opened", "filter-ana", "filter-bob", 1, "2091-01-01T00:00:00Z") + "," +
+                                issue("filter-2", "closed", "filter-ana", null, 5, "2091-01-15T00:00:00Z") + "," +
+                                issue("filter-3", "opened", "filter-bob", "filter-ana", 10, "2091-02-01T00:00:00Z") + "," +
+                                issue("filter-4", "closed", "filter-bob", "filter-ana", 20, "2091-02-10T00:00:00Z") + "," +
+                                issue("filter-5", "closed", "filter-ana", "filter-bob", 7, "2091-03-01T00:00:00Z") + "]}"))
+                .andExpect(status().isCreated());
+    }
+
+    private List<String> ids(String query) throws Exception {
+        String body = mockMvc.perform(get("/gitminer/issues?size=100&" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$[*].id");
+    }
+
+    @Test
+    void stateAndAuthorAreNotSwapped() throws Exception {
+        assertThat(ids("state=closed&authorId=filter-ana")).containsExactlyInAnyOrder("filter-2", "filter-5");
+        assertThat(ids("state=opened&authorId=filter-bob")).containsExactlyInAnyOrder("filter-3");
+        assertThat(ids("state=filter-ana&authorId=closed")).isEmpty();
+        // Con las relaciones incluidas (etiquetas y autor) no se repiten filas
+        assertThat(ids("state=closed&assigneeId=filter-ana&expand=labels,author")).containsExactlyInAnyOrder("filter-4");
+    }
+
+    @Test
+    void votesRangeIsInclusive() throws Exception {
+        String window = "since=2091-01-01T00:00:00Z&until=2092-01-01T00:00:00Z";
+        assertThat(ids(window + "&minVotes=5&maxVotes=10")).containsExactlyInAnyOrder("filter-2", "filter-3", "filter-5");
+        assertThat(ids(window + "&minVotes=11")).containsExactlyInAnyOrder("filter-4");
+        assertThat(ids(window + "&maxVotes=1&expand=labels")).containsExactlyInAnyOrder("filter-1");
+    }
+
+    @Test
+    void createdAtWindowIncludesSinceAndExcludesUntil() throws Exception {
+        assertThat(ids("since=2091-01-15T00:00:00Z&until=2091-02-10T00:00:00Z")).containsExactlyInAnyOrder("filter-2", "filter-3");
+        assertThat(ids("since=2091-02-10T00:00:00Z&until=2091-03-01T00:00:00Z&authorId=filter-bob")).containsExactlyInAnyOrder("filter-4");
+        assertThat(ids("since=2091-01-01T00:00:00Z&until=2092-01-01T00:00:00Z&state=closed&authorId=filter-ana&minVotes=6"))
+                .containsExactlyInAnyOrder("filter-5");
+    }
+}
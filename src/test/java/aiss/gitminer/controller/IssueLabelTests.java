@@ -0,0 +1,101 @@
+package aiss.gitminer.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IssueLabelTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static String issue(String id, String... labels) {
+        return "{\"id\":\"" + id + "\",\"title\":\"Issue\",\"state\":\"opened\",\"labels\":[\"" + String.join("\",\"", labels) + "\"]}";
+    }
+
+    // Cada proyecto usa etiquetas con su propio prefijo: ningún otro test crea issues con ellas (la base de datos es compartida)
+    private void createProject(String id) throws Exception {
+        String a = id + "-a", b = id + "-b", c = id + "-c";
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + id + "\",\"name\":\"Project\",\"web_url\":\"http://x\",\"issues\":[" +
+                                issue(id + "-1", a, b) + "," +
+                                issue(id + "-2", a) + "," +
+                                issue(id + "-3", b, c) + "," +
+                                // Etiqueta repetida en la misma issue
+                                issue(id + "-4", a, a, b) + "," +
+                                issue(id + "-5", a, a) + "]}"))
+                .andExpect(status().isCreated());
+    }
+
+    private List<String> ids(String query) throws Exception {
+        String body = mockMvc.perform(get("/gitminer/issues?size=100&" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$[*].id");
+    }
+
+    @Test
+    void anyLabelsReturnsEachIssueOnce() throws Exception {
+        createProject("anylabel");
+        assertThat(ids("anyLabels=anylabel-a,anylabel-b&expand=labels"))
+                .containsExactlyInAnyOrder("anylabel-1", "anylabel-2", "anylabel-3", "anylabel-4", "anylabel-5");
+        assertThat(ids("anyLabels=anylabel-c,anylabel-missing")).containsExactly("anylabel-3");
+        // El total cuenta issues, no filas de la tabla de etiquetas
+        mockMvc.perform(get("/gitminer/issues?anyLabels=anylabel-a&total=true&after="))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursors.TOTAL_COUNT_HEADER, "4"));
+    }
+
+    @Test
+    void allLabelsRequiresEveryLabel() throws Exception {
+        createProject("alllabel");
+        assertThat(ids("allLabels=alllabel-a,alllabel-b")).containsExactlyInAnyOrder("alllabel-1", "alllabel-4");
+        assertThat(ids("allLabels=alllabel-b,alllabel-c&expand=labels")).containsExactly("alllabel-3");
+        // Pedir dos veces la misma etiqueta es pedirla una vez; la issue con la etiqueta repetida no cuenta como si tuviera dos
+        assertThat(ids("allLabels=alllabel-a,alllabel-a"))
+                .containsExactlyInAnyOrder("alllabel-1", "alllabel-2", "alllabel-4", "alllabel-5");
+        assertThat(ids("allLabels=alllabel-a,alllabel-c")).isEmpty();
+        assertThat(ids("anyLabels=alllabel-c&allLabels=alllabel-a,alllabel-b")).isEmpty();
+    }
+
+    @Test
+    void histogramCountsEachIssueOncePerLabel() throws Exception {
+        createProject("histlabel");
+        mockMvc.perform(get("/gitminer/projects/histlabel/labels"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].label").value("histlabel-a"))
+                .andExpect(jsonPath("$[0].issues").value(4))
+                .andExpect(jsonPath("$[1].label").value("histlabel-b"))
+                .andExpect(jsonPath("$[1].issues").value(3))
+                .andExpect(jsonPath("$[2].label").value("histlabel-c"))
+                .andExpect(jsonPath("$[2].issues").value(1));
+
+        // Al modificar una issue con etiquetas repetidas se resta y se suma una sola vez por etiqueta
+        mockMvc.perform(put("/gitminer/issues/histlabel-5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(issue("histlabel-5", "histlabel-c", "histlabel-c")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/gitminer/projects/histlabel/labels"))
+                .andExpect(jsonPath("$[?(@.label == 'histlabel-a')].issues").value(3))
+                .andExpect(jsonPath("$[?(@.label == 'histlabel-b')].issues").value(3))
+                .andExpect(jsonPath("$[?(@.label == 'histlabel-c')].issues").value(2));
+    }
+}
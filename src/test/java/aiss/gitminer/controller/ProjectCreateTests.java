@@ -0,0 +1,80 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectCreateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static String project(String id, String name) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"web_url\":\"http://x\"," +
+                "\"commits\":[{\"id\":\"" + id + "-" + name + "\",\"title\":\"First\",\"author_name\":\"ana\"," +
+                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c\"}]}";
+    }
+
+    @Test
+    void duplicateIdIsRejected() throws Exception {
+        mockMvc.perform(post("/gitminer/projects").contentType(MediaType.APPLICATION_JSON).content(project("create-dup", "a")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/gitminer/projects").contentType(MediaType.APPLICATION_JSON).content(project("create-dup", "b")))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/gitminer/projects/create-dup?expand=commits"))
+                .andExpect(jsonPath("$.name").value("a"))
+                .andExpect(jsonPath("$.commits", hasSize(1)));
+    }
+
+    @Test
+    void concurrentCreatesWithTheSameIdDoNotOverwriteEachOther() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String name = "n" + i;
+            Callable<Integer> create = () -> mockMvc.perform(post("/gitminer/projects")
+                    .contentType(MediaType.APPLICATION_JSON).content(project("create-race", name)))
+                    .andReturn().getResponse().getStatus();
+            results.add(executor.submit(create));
+        }
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> result : results) {
+            statuses.add(result.get());
+        }
+        executor.shutdown();
+
+        assertThat(statuses).containsOnly(201, 409);
+        assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+        mockMvc.perform(get("/gitminer/projects/create-race/stats"))
+                .andExpect(jsonPath("$.commits").value(1));
+    }
+
+    @Test
+    void createWithoutCollectionsReturnsEmptyLists() throws Exception {
+        mockMvc.perform(post("/gitminer/projects").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"create-empty\",\"name\":\"Empty\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.commits", hasSize(0)))
+                .andExpect(jsonPath("$.issues", hasSize(0)));
+    }
+}
@@ -0,0 +1,65 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void createProject() throws Exception {
+        if (mockMvc.perform(get("/gitminer/projects/export-p")).andReturn().getResponse().getStatus() == 200) {
+            return;
+        }
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"export-p\",\"name\":\"Project\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    // El cuerpo se escribe en otro hilo: la respuesta completa llega en el dispatch asíncrono
+    private MvcResult export(String acceptEncoding) throws Exception {
+        MvcResult started = mockMvc.perform(acceptEncoding == null
+                        ? get("/gitminer/projects/export-p/export")
+                        : get("/gitminer/projects/export-p/export").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+
+    @Test
+    void gzipOnlyWhenAccepted() throws Exception {
+        for (String accepted : new String[] { "gzip", "deflate, GZIP;q=0.5", "br;q=1.0, *;q=0.1" }) {
+            MvcResult result = export(accepted);
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).as(accepted).isEqualTo("gzip");
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("\"export-p\"");
+            }
+        }
+        for (String refused : new String[] { null, "identity", "gzip;q=0", "gzip; q=0.000, deflate", "x-gzip", "*;q=0", "*, gzip;q=0" }) {
+            MvcResult result = export(refused);
+            assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).as(refused).isNull();
+            assertThat(result.getResponse().getContentAsString()).as(refused).contains("\"export-p\"");
+        }
+    }
+}
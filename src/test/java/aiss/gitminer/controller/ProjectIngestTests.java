@@ -0,0 +1,95 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "gitminer.ingest.batch-size=2")
+@AutoConfigureMockMvc
+class ProjectIngestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ResultActions ingest(String body) throws Exception {
+        return mockMvc.perform(post("/gitminer/projects/ingest")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private static String commit(String id) {
+        return "{\"id\":\"" + id + "\",\"title\":\"Commit\",\"author_name\":\"ana\"," +
+                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/" + id + "\"}";
+    }
+
+    private long count(String sql, String id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+
+    @Test
+    void streamsProjectInBatches() throws Exception {
+        // Con batch-size=2 la ingesta vacía el contexto de persistencia varias veces
+        ingest("{\"id\":\"ingest-ok\",\"name\":\"Project\",\"web_url\":\"http://x\",\"unknown\":{\"nested\":[1,2]}," +
+                "\"commits\":[" + commit("ingest-ok-c1") + "," + commit("ingest-ok-c2") + "," + commit("ingest-ok-c3") + "]," +
+                "\"issues\":[{\"id\":\"ingest-ok-i1\",\"title\":\"Bug\",\"state\":\"opened\",\"author\":{\"id\":\"ingest-u1\",\"username\":\"ana\"}," +
+                "\"comments\":[{\"id\":\"ingest-ok-m1\",\"body\":\"Hi\",\"created_at\":\"2023-01-03T00:00:00Z\",\"author\":{\"id\":\"ingest-u1\",\"username\":\"ana\"}}]}]}")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.project_id").value("ingest-ok"))
+                .andExpect(jsonPath("$.commits").value(3))
+                .andExpect(jsonPath("$.issues").value(1))
+                .andExpect(jsonPath("$.comments").value(1));
+
+        assertThat(count("SELECT COUNT(*) FROM commit WHERE project_id = ?", "ingest-ok")).isEqualTo(3);
+        assertThat(count("SELECT COUNT(*) FROM comment WHERE issue_id = ?", "ingest-ok-i1")).isEqualTo(1);
+        assertThat(count("SELECT commits FROM project_stats WHERE project_id = ?", "ingest-ok")).isEqualTo(3);
+    }
+
+    @Test
+    void projectFieldsMustPrecedeChildren() throws Exception {
+        ingest("{\"name\":\"Project\",\"web_url\":\"http://x\",\"commits\":[" + commit("ingest-late-c1") + "],\"id\":\"ingest-late\"}")
+                .andExpect(status().isBadRequest());
+        ingest("{\"id\":\"ingest-late2\",\"issues\":[],\"name\":\"Project\",\"web_url\":\"http://x\"}")
+                .andExpect(status().isBadRequest());
+
+        assertThat(count("SELECT COUNT(*) FROM project WHERE id = ?", "ingest-late")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM project WHERE id = ?", "ingest-late2")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM commit WHERE id = ?", "ingest-late-c1")).isZero();
+    }
+
+    @Test
+    void invalidPayloadsAreRejectedAndRolledBack() throws Exception {
+        ingest("[]").andExpect(status().isBadRequest());
+        ingest("{\"id\":\"ingest-bad1\",\"name\":\"Project\",\"web_url\":\"http://x\",\"commits\":{}}")
+                .andExpect(status().isBadRequest());
+        // JSON cortado después de varios lotes: no queda nada de lo ya volcado
+        ingest("{\"id\":\"ingest-bad2\",\"name\":\"Project\",\"web_url\":\"http://x\",\"commits\":["
+                + commit("ingest-bad2-c1") + "," + commit("ingest-bad2-c2") + "," + commit("ingest-bad2-c3") + ",{\"id\":")
+                .andExpect(status().isBadRequest());
+
+        assertThat(count("SELECT COUNT(*) FROM project WHERE id = ?", "ingest-bad1")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM project WHERE id = ?", "ingest-bad2")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM commit WHERE project_id = ?", "ingest-bad2")).isZero();
+    }
+
+    @Test
+    void existingProjectIsNotOverwritten() throws Exception {
+        ingest("{\"id\":\"ingest-dup\",\"name\":\"Project\",\"web_url\":\"http://x\"}").andExpect(status().isCreated());
+        ingest("{\"id\":\"ingest-dup\",\"name\":\"Other\",\"web_url\":\"http://y\",\"commits\":[" + commit("ingest-dup-c1") + "]}")
+                .andExpect(status().isConflict());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM project WHERE id = 'ingest-dup'", String.class)).isEqualTo("Project");
+        assertThat(count("SELECT COUNT(*) FROM commit WHERE id = ?", "ingest-dup-c1")).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectStatsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Commits "autor@fecha"
+    private void createProject(String id, String... commits) throws Exception {
+        String json = Arrays.stream(commits).map(commit -> {
+            String[] parts = commit.split("@");
+            return "{\"id\":\"" + id + "-" + commit + "\",\"title\":\"Commit\",\"author_name\":\"" + parts[0] + "\"," +
+                    "\"authored_date\":\"" + parts[1] + "\",\"web_url\":\"http://x/c\"}";
+        }).collect(Collectors.joining(","));
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + id + "\",\"name\":\"Project\",\"web_url\":\"http://x\",\"commits\":[" + json + "]}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void contributorsWindowIncludesSinceAndExcludesUntil() throws Exception {
+        createProject("contrib-p",
+                "carl@2022-12-31T23:59:59Z",
+                "ana@2023-01-01T00:00:00Z", "ana@2023-01-31T23:59:59Z",
+                "bob@2023-02-01T00:00:00Z", "bob@2023-02-15T10:00:00Z", "bob@2023-03-01T00:00:00Z");
+
+        // Sin ventana se lee del agregado
+        mockMvc.perform(get("/gitminer/projects/contrib-p/contributors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].author_name").value("bob"))
+                .andExpect(jsonPath("$[0].commits").value(3))
+                .andExpect(jsonPath("$[1].author_name").value("ana"))
+                .andExpect(jsonPath("$[2].author_name").value("carl"));
+
+        mockMvc.perform(get("/gitminer/projects/contrib-p/contributors?since=2023-01-01T00:00:00Z&until=2023-02-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].author_name").value("ana"))
+                .andExpect(jsonPath("$[0].commits").value(2))
+                .andExpect(jsonPath("$[0].first_commit_at").value("2023-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$[0].last_commit_at").value("2023-01-31T23:59:59Z"));
+
+        // Solo since o solo until; el primer y el último commit se calculan dentro de la ventana
+        mockMvc.perform(get("/gitminer/projects/contrib-p/contributors?since=2023-01-31T23:59:59Z"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].author_name").value("bob"))
+                .andExpect(jsonPath("$[0].commits").value(3))
+                .andExpect(jsonPath("$[1].author_name").value("ana"))
+                .andExpect(jsonPath("$[1].commits").value(1))
+                .andExpect(jsonPath("$[1].first_commit_at").value("2023-01-31T23:59:59Z"));
+        mockMvc.perform(get("/gitminer/projects/contrib-p/contributors?until=2023-01-01T00:00:00Z"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].author_name").value("carl"));
+        mockMvc.perform(get("/gitminer/projects/contrib-p/contributors?since=2022-01-01T00:00:00Z&top=1"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].author_name").value("bob"));
+    }
+
+    // 2023-01-01 es domingo: las semanas (ISO) empiezan el lunes 2022-12-26, 2023-01-02 y 2023-01-30, todo en UTC
+    @Test
+    void activityBucketsStartOnMondayAndOnTheFirstOfTheMonth() throws Exception {
+        createProject("activity-p",
+                "ana@2023-01-01T23:59:59Z", "ana@2023-01-02T00:00:00Z",
+                "ana@2023-01-31T23:59:59Z", "ana@2023-02-01T00:00:00Z");
+
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].bucket_start").value("2022-12-26"))
+                .andExpect(jsonPath("$[0].commits").value(1))
+                .andExpect(jsonPath("$[1].bucket_start").value("2023-01-02"))
+                .andExpect(jsonPath("$[1].commits").value(1))
+                .andExpect(jsonPath("$[2].bucket_start").value("2023-01-30"))
+                .andExpect(jsonPath("$[2].commits").value(2));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=month"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bucket_start").value("2023-01-01"))
+                .andExpect(jsonPath("$[0].commits").value(3))
+                .andExpect(jsonPath("$[1].bucket_start").value("2023-02-01"))
+                .andExpect(jsonPath("$[1].commits").value(1));
+
+        // since incluye el intervalo que lo contiene; until, los que empiezan antes
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=week&since=2023-01-04T12:00:00Z"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bucket_start").value("2023-01-02"));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=week&until=2023-01-30T00:00:00Z"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].bucket_start").value("2023-01-02"));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=week&since=2023-01-02T00:00:00Z&until=2023-01-30T00:00:01Z"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bucket_start").value("2023-01-02"))
+                .andExpect(jsonPath("$[1].bucket_start").value("2023-01-30"));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=month&since=2023-01-31T23:59:59Z"))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=month&since=2023-02-01T00:00:00Z"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].bucket_start").value("2023-02-01"));
+        mockMvc.perform(get("/gitminer/projects/activity-p/activity?bucket=month&until=2023-02-01T00:00:00Z"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].bucket_start").value("2023-01-01"));
+    }
+}
@@ -0,0 +1,78 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectSyncTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private void createProject(String id) throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + id + "\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"commits\":[{\"id\":\"" + id + "-c1\",\"title\":\"First\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}]," +
+                                "\"issues\":[{\"id\":\"" + id + "-i1\",\"title\":\"Bug\",\"state\":\"opened\"," +
+                                "\"comments\":[{\"id\":\"" + id + "-m1\",\"body\":\"Hi\",\"created_at\":\"2023-01-03T00:00:00Z\"}]}," +
+                                "{\"id\":\"" + id + "-i2\",\"title\":\"Other\",\"state\":\"opened\"}]}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void commitOfAnotherProjectIsNotMoved() throws Exception {
+        createProject("sync-a");
+        createProject("sync-b");
+
+        mockMvc.perform(post("/gitminer/projects/sync-b/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"commits\":[{\"id\":\"sync-a-c1\",\"title\":\"Stolen\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}]}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/gitminer/commits/sync-a-c1")).andExpect(jsonPath("$.title").value("First"));
+        mockMvc.perform(get("/gitminer/projects/sync-a/stats")).andExpect(jsonPath("$.commits").value(1));
+        mockMvc.perform(get("/gitminer/projects/sync-b/stats")).andExpect(jsonPath("$.commits").value(1));
+    }
+
+    @Test
+    void commentOfAnotherIssueIsNotMoved() throws Exception {
+        createProject("sync-c");
+
+        mockMvc.perform(post("/gitminer/projects/sync-c/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"issues\":[{\"id\":\"sync-c-i2\",\"title\":\"Other\",\"state\":\"opened\"," +
+                                "\"comments\":[{\"id\":\"sync-c-m1\",\"body\":\"Moved\",\"created_at\":\"2023-01-03T00:00:00Z\"}]}]}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/gitminer/comments/sync-c-m1")).andExpect(jsonPath("$.body").value("Hi"));
+    }
+
+    @Test
+    void elementsOfTheSameProjectAreUpdated() throws Exception {
+        createProject("sync-d");
+
+        mockMvc.perform(post("/gitminer/projects/sync-d/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"commits\":[{\"id\":\"sync-d-c1\",\"title\":\"Edited\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}]," +
+                                "\"issues\":[{\"id\":\"sync-d-i1\",\"title\":\"Bug\",\"state\":\"opened\"," +
+                                "\"comments\":[{\"id\":\"sync-d-m1\",\"body\":\"Edited\",\"created_at\":\"2023-01-03T00:00:00Z\"}]}]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/gitminer/commits/sync-d-c1")).andExpect(jsonPath("$.title").value("Edited"));
+        mockMvc.perform(get("/gitminer/comments/sync-d-m1")).andExpect(jsonPath("$.body").value("Edited"));
+    }
+}
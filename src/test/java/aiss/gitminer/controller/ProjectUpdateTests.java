@@ -0,0 +1,112 @@
+package aiss.gitminer.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectUpdateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private void createProject(String id) throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"" + id + "\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"commits\":[{\"id\":\"" + id + "-c1\",\"title\":\"First\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}]," +
+                                "\"issues\":[{\"id\":\"" + id + "-i1\",\"title\":\"Bug\",\"state\":\"opened\"," +
+                                "\"created_at\":\"2023-01-02T00:00:00Z\",\"labels\":[\"bug\"]," +
+                                "\"comments\":[{\"id\":\"" + id + "-m1\",\"body\":\"Hi\",\"created_at\":\"2023-01-03T00:00:00Z\"}]}]}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void putWithoutCollectionsKeepsChildren() throws Exception {
+        createProject("upd-keep");
+
+        mockMvc.perform(put("/gitminer/projects/upd-keep")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-keep\",\"name\":\"Renamed\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andExpect(jsonPath("$.commits", hasSize(1)))
+                .andExpect(jsonPath("$.issues", hasSize(1)));
+
+        mockMvc.perform(get("/gitminer/projects/upd-keep?expand=commits,issues,comments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commits", hasSize(1)))
+                .andExpect(jsonPath("$.issues[0].comments", hasSize(1)));
+        mockMvc.perform(get("/gitminer/projects/upd-keep/stats"))
+                .andExpect(jsonPath("$.commits").value(1))
+                .andExpect(jsonPath("$.open_issues").value(1))
+                .andExpect(jsonPath("$.comments").value(1));
+    }
+
+    @Test
+    void removedChildrenAreDeletedAndVersionIsBumped() throws Exception {
+        createProject("upd-remove");
+
+        mockMvc.perform(put("/gitminer/projects/upd-remove")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-remove\",\"name\":\"Project\",\"web_url\":\"http://x\",\"commits\":[],\"issues\":[]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(greaterThan(0)));
+
+        mockMvc.perform(get("/gitminer/commits/upd-remove-c1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/gitminer/issues/upd-remove-i1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/gitminer/comments/upd-remove-m1")).andExpect(status().isNotFound());
+        mockMvc.perform(put("/gitminer/projects/upd-remove")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-remove\",\"name\":\"Project\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void changingOnlyAChildBumpsTheProjectVersion() throws Exception {
+        createProject("upd-child");
+
+        // Solo cambia el título de una issue: el If-Match con la versión anterior tiene que dejar de valer
+        mockMvc.perform(put("/gitminer/projects/upd-child")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-child\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"issues\":[{\"id\":\"upd-child-i1\",\"title\":\"Renamed\",\"state\":\"opened\"," +
+                                "\"created_at\":\"2023-01-02T00:00:00Z\",\"labels\":[\"bug\"]}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(put("/gitminer/projects/upd-child")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-child\",\"name\":\"Project\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void putWithStaleVersionIsRejected() throws Exception {
+        createProject("upd-stale");
+
+        mockMvc.perform(put("/gitminer/projects/upd-stale")
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"upd-stale\",\"name\":\"Renamed\",\"web_url\":\"http://x\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
@@ -0,0 +1,60 @@
+package aiss.gitminer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+class LifecycleHistogramTests {
+
+    @Test
+    void firstSixteenSecondsAreExact() {
+        for (long seconds = 0; seconds < 16; seconds++) {
+            int bucket = LifecycleHistogram.bucket(seconds);
+            assertThat(bucket).isEqualTo((int) seconds);
+            assertThat(LifecycleHistogram.lowerBound(bucket)).isEqualTo(seconds);
+            assertThat(LifecycleHistogram.upperBound(bucket)).isEqualTo(seconds);
+        }
+        // Una fecha de cierre anterior a la de creación cuenta como 0
+        assertThat(LifecycleHistogram.bucket(-5)).isZero();
+    }
+
+    @Test
+    void bucketsContainTheirValuesWithBoundedError() {
+        int previous = -1;
+        long[] samples = { 16, 17, 31, 32, 33, 63, 64, 1000, 3_599, 3_600, 86_400, 2_592_000, 31_536_000, 3_153_600_000L };
+        for (long seconds : samples) {
+            int bucket = LifecycleHistogram.bucket(seconds);
+            long lower = LifecycleHistogram.lowerBound(bucket);
+            long upper = LifecycleHistogram.upperBound(bucket);
+            assertThat(seconds).isBetween(lower, upper);
+            // 16 intervalos por potencia de 2: el ancho nunca llega a 1/16 del límite inferior
+            assertThat((double) (upper - lower + 1) / lower).isLessThanOrEqualTo(1.0 / 16);
+            assertThat(bucket).isGreaterThanOrEqualTo(previous);
+            previous = bucket;
+        }
+        // Intervalos contiguos: cada uno empieza justo después del anterior
+        for (int bucket = 0; bucket < 400; bucket++) {
+            assertThat(LifecycleHistogram.lowerBound(bucket + 1)).isEqualTo(LifecycleHistogram.upperBound(bucket) + 1);
+        }
+    }
+
+    @Test
+    void percentileFallsInTheBucketOfItsRank() {
+        assertThat(LifecycleHistogram.percentile(new TreeMap<>(), 0, 0.5)).isNull();
+
+        SortedMap<Integer, Long> histogram = new TreeMap<>();
+        histogram.put(LifecycleHistogram.bucket(10), 50L);
+        histogram.put(LifecycleHistogram.bucket(3_600), 40L);
+        histogram.put(LifecycleHistogram.bucket(86_400), 10L);
+
+        assertThat(LifecycleHistogram.percentile(histogram, 100, 0.5)).isEqualTo(10L);
+        assertThat(LifecycleHistogram.percentile(histogram, 100, 0.9)).isCloseTo(3_600L, withPercentage(6));
+        assertThat(LifecycleHistogram.percentile(histogram, 100, 0.99)).isCloseTo(86_400L, withPercentage(6));
+        // p = 0 devuelve el primer intervalo con issues
+        assertThat(LifecycleHistogram.percentile(histogram, 100, 0)).isEqualTo(10L);
+    }
+}
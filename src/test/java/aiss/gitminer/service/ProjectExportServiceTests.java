@@ -0,0 +1,58 @@
+package aiss.gitminer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectExportServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProjectExportService projectExportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void everyLineIsAStandaloneJsonObject() throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"export-p\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"commits\":[{\"id\":\"export-c1\",\"title\":\"First\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-01T00:00:00Z\",\"web_url\":\"http://x/c1\"}," +
+                                "{\"id\":\"export-c2\",\"title\":\"Second\",\"author_name\":\"ana\"," +
+                                "\"authored_date\":\"2023-01-02T00:00:00Z\",\"web_url\":\"http://x/c2\"}]," +
+                                "\"issues\":[{\"id\":\"export-i1\",\"title\":\"Bug\",\"state\":\"opened\",\"labels\":[\"bug\"]," +
+                                "\"comments\":[{\"id\":\"export-m1\",\"body\":\"Hi\",\"created_at\":\"2023-01-03T00:00:00Z\"}]}]}"))
+                .andExpect(status().isCreated());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        projectExportService.export("export-p", out);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(ndjson).endsWith("\n");
+        List<String> types = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            assertThat(line).startsWith("{");
+            JsonNode node = objectMapper.readTree(line);
+            types.add(node.get("type").asText());
+        }
+        assertThat(types).containsExactly("project", "commit", "commit", "issue", "comment");
+    }
+}
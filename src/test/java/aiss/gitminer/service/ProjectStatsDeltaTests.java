@@ -0,0 +1,113 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Comment;
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.model.Issue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectStatsDeltaTests {
+
+    private static Commit commit(String author, String date) {
+        Commit commit = new Commit();
+        commit.setProjectId("p");
+        commit.setAuthorName(author);
+        commit.setAuthoredDate(Instant.parse(date));
+        return commit;
+    }
+
+    private static Issue closedIssue(List<String> labels) {
+        Issue issue = new Issue();
+        issue.setProjectId("p");
+        issue.setState("Closed");
+        issue.setCreatedAt(Instant.parse("2023-01-01T00:00:00Z"));
+        issue.setClosedAt(Instant.parse("2023-01-01T01:00:00Z"));
+        issue.setFirstCommentAt(Instant.parse("2023-01-01T00:00:10Z"));
+        issue.setLabels(labels);
+        return issue;
+    }
+
+    private static Comment comment(String date) {
+        Comment comment = new Comment();
+        comment.setCreatedAt(Instant.parse(date));
+        return comment;
+    }
+
+    @Test
+    void commitsCountPerAuthorAndKeepTheirDateRange() {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        delta.commit(commit("ana", "2023-03-01T10:00:00Z"), 1);
+        delta.commit(commit("ana", "2023-01-01T10:00:00Z"), 1);
+        delta.commit(commit("bob", "2023-02-01T10:00:00Z"), 1);
+        delta.commit(commit("bob", "2023-02-01T10:00:00Z"), -1);
+
+        assertThat(delta.projects.get("p")[ProjectStatsDelta.COMMITS]).isEqualTo(2);
+        assertThat(delta.authors.get("p")).containsEntry("ana", 2L).containsEntry("bob", 0L);
+        assertThat(delta.authorDates.get("p").get("ana"))
+                .containsExactly(Instant.parse("2023-01-01T10:00:00Z"), Instant.parse("2023-03-01T10:00:00Z"));
+        // Al quitar un commit las fechas del autor no se pueden restar: se recalculan
+        assertThat(delta.staleAuthorDates.get("p")).containsExactly("bob");
+        assertThat(delta.activity.get("p").get(LocalDate.parse("2023-02-01"))[ProjectStatsDelta.ACTIVITY_COMMITS]).isZero();
+    }
+
+    @Test
+    void closedIssueCountsDurationLabelsAndHistograms() {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        delta.issue(closedIssue(List.of("bug", "bug", "ui")), 1);
+
+        long[] counters = delta.projects.get("p");
+        assertThat(counters[ProjectStatsDelta.CLOSED_ISSUES]).isEqualTo(1);
+        assertThat(counters[ProjectStatsDelta.OPEN_ISSUES]).isZero();
+        assertThat(counters[ProjectStatsDelta.CLOSED_DURATION_SECONDS]).isEqualTo(3_600);
+        assertThat(counters[ProjectStatsDelta.CLOSED_DURATION_COUNT]).isEqualTo(1);
+        // La etiqueta repetida cuenta una vez
+        assertThat(delta.labels.get("p")).containsOnlyKeys("bug", "ui").containsEntry("bug", 1L);
+
+        int close = LifecycleHistogram.bucket(3_600);
+        int firstResponse = LifecycleHistogram.bucket(10);
+        assertThat(delta.lifecycle.get("p")).containsOnlyKeys(
+                new ProjectStatsDelta.LifecycleKey(LifecycleHistogram.ALL_ISSUES, LifecycleHistogram.TIME_TO_CLOSE, close),
+                new ProjectStatsDelta.LifecycleKey("bug", LifecycleHistogram.TIME_TO_CLOSE, close),
+                new ProjectStatsDelta.LifecycleKey("ui", LifecycleHistogram.TIME_TO_CLOSE, close),
+                new ProjectStatsDelta.LifecycleKey(LifecycleHistogram.ALL_ISSUES, LifecycleHistogram.TIME_TO_FIRST_RESPONSE, firstResponse),
+                new ProjectStatsDelta.LifecycleKey("bug", LifecycleHistogram.TIME_TO_FIRST_RESPONSE, firstResponse),
+                new ProjectStatsDelta.LifecycleKey("ui", LifecycleHistogram.TIME_TO_FIRST_RESPONSE, firstResponse));
+
+        // Quitar el estado anterior deja todos los contadores a cero
+        delta.issue(closedIssue(List.of("bug", "ui")), -1);
+        assertThat(delta.projects.get("p")).containsOnly(0);
+        assertThat(delta.labels.get("p").values()).containsOnly(0L);
+        assertThat(delta.lifecycle.get("p").values()).containsOnly(0L);
+        assertThat(delta.activity.get("p").values()).allSatisfy(day -> assertThat(day).containsOnly(0));
+    }
+
+    @Test
+    void commentsAreCountedByUtcDay() {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        delta.comments("p", List.of(comment("2023-01-01T23:30:00Z"), comment("2023-01-02T00:30:00Z")), 1);
+        delta.comment(null, comment("2023-01-01T00:00:00Z"), 1);
+
+        assertThat(delta.projects).containsOnlyKeys("p");
+        assertThat(delta.projects.get("p")[ProjectStatsDelta.COMMENTS]).isEqualTo(2);
+        assertThat(delta.activity.get("p")).containsOnlyKeys(LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-02"));
+        assertThat(ProjectStatsDelta.firstCommentAt(List.of(comment("2023-01-02T00:30:00Z"), comment("2023-01-01T23:30:00Z"))))
+                .isEqualTo(Instant.parse("2023-01-01T23:30:00Z"));
+    }
+
+    @Test
+    void elementsWithoutProjectAreIgnored() {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        Commit commit = commit("ana", "2023-01-01T00:00:00Z");
+        commit.setProjectId(null);
+        delta.commit(commit, 1);
+        assertThat(delta.isEmpty()).isTrue();
+
+        delta.project("p");
+        assertThat(delta.isEmpty()).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Commit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProjectStatsServiceTests {
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProjectStatsDelta oneCommit(String projectId, String author) {
+        Commit commit = new Commit();
+        commit.setProjectId(projectId);
+        commit.setAuthorName(author);
+        commit.setAuthoredDate(Instant.parse("2023-05-01T10:00:00Z"));
+        ProjectStatsDelta delta = projectStatsService.newDelta();
+        delta.commit(commit, 1);
+        return delta;
+    }
+
+    private long authorCommits(String projectId, String author) {
+        return jdbcTemplate.queryForObject("SELECT commits FROM project_author_stats WHERE project_id = ? AND author_name = ?",
+                Long.class, projectId, author);
+    }
+
+    @Test
+    void concurrentWritersAddingTheSameAuthorBothCount() throws Exception {
+        CompletableFuture<Void> second = transactionTemplate.execute(status -> {
+            projectStatsService.apply(oneCommit("stats-race", "ana"));
+            // La segunda transacción no ve la fila sin confirmar: su UPDATE no toca nada y su INSERT espera a esta
+            CompletableFuture<Void> other = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                    s -> projectStatsService.apply(oneCommit("stats-race", "ana"))));
+            try {
+                TimeUnit.MILLISECONDS.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return other;
+        });
+        second.get(10, TimeUnit.SECONDS);
+
+        assertThat(authorCommits("stats-race", "ana")).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT commits FROM project_stats WHERE project_id = ?", Long.class, "stats-race"))
+                .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT commits FROM project_activity WHERE project_id = ? AND bucket = 'day'",
+                Long.class, "stats-race")).isEqualTo(2);
+    }
+
+    @Test
+    void removingTheLastCommitDeletesOnlyThatAuthor() {
+        projectStatsService.apply(oneCommit("stats-sweep", "ana"));
+        projectStatsService.apply(oneCommit("stats-sweep", "bob"));
+        // Fila a cero que no toca el delta: no se borra al aplicar otro cambio
+        jdbcTemplate.update("INSERT INTO project_label_stats (project_id, label, issues) VALUES ('stats-sweep', 'idle', 0)");
+
+        ProjectStatsDelta removal = projectStatsService.newDelta();
+        Commit commit = new Commit();
+        commit.setProjectId("stats-sweep");
+        commit.setAuthorName("ana");
+        commit.setAuthoredDate(Instant.parse("2023-05-01T10:00:00Z"));
+        removal.commit(commit, -1);
+        projectStatsService.apply(removal);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_author_stats WHERE project_id = 'stats-sweep'", Long.class))
+                .isEqualTo(1);
+        assertThat(authorCommits("stats-sweep", "bob")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_label_stats WHERE project_id = 'stats-sweep'", Long.class))
+                .isEqualTo(1);
+        // El día sigue teniendo el commit de bob
+        assertThat(jdbcTemplate.queryForObject("SELECT commits FROM project_activity WHERE project_id = 'stats-sweep' AND bucket = 'day'",
+                Long.class)).isEqualTo(1);
+    }
+}
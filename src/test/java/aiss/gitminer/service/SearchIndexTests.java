@@ -0,0 +1,85 @@
+package aiss.gitminer.service;
+
+import aiss.gitminer.model.Commit;
+import aiss.gitminer.repository.CommitRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SearchIndexTests {
+
+    @Autowired
+    private SearchService searchService;
+    @Autowired
+    private CommitRepository commitRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static Commit commit(String id, String title) {
+        Commit commit = new Commit();
+        commit.setId(id);
+        commit.setTitle(title);
+        commit.setAuthorName("ana");
+        commit.setAuthoredDate(Instant.parse("2023-01-01T00:00:00Z"));
+        commit.setWebUrl("http://x/" + id);
+        return commit;
+    }
+
+    private List<String> ids(String query) throws Exception {
+        return searchService.search(query, List.of(SearchService.COMMIT), 0, 10).stream().map(SearchHit::getId).toList();
+    }
+
+    @Test
+    void rolledBackWritesDoNotReachTheIndex() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> commitRepository.save(commit("search-c1", "zebrafirst")));
+        assertThat(ids("zebrafirst")).containsExactly("search-c1");
+
+        // Inserción, modificación y borrado deshechos: el índice sigue como estaba
+        transactionTemplate.executeWithoutResult(status -> {
+            commitRepository.save(commit("search-c2", "zebrarolled"));
+            commitRepository.save(commit("search-c1", "zebrachanged"));
+            commitRepository.flush();
+            assertThat(searchIds("zebrarolled")).isEmpty();
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            commitRepository.deleteById("search-c1");
+            commitRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(ids("zebrarolled")).isEmpty();
+        assertThat(ids("zebrachanged")).isEmpty();
+        assertThat(ids("zebrafirst")).containsExactly("search-c1");
+
+        transactionTemplate.executeWithoutResult(status -> commitRepository.deleteById("search-c1"));
+        assertThat(ids("zebrafirst")).isEmpty();
+    }
+
+    @Test
+    void reindexRestoresLostDocuments() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> commitRepository.save(commit("search-c3", "okapilost")));
+        searchService.delete(List.of(SearchService.COMMIT + ":search-c3"));
+        searchService.commit();
+        assertThat(ids("okapilost")).isEmpty();
+
+        searchService.reindex();
+
+        assertThat(ids("okapilost")).containsExactly("search-c3");
+    }
+
+    private List<String> searchIds(String query) {
+        try {
+            return ids(query);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
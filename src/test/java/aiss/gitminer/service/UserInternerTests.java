@@ -0,0 +1,59 @@
+package aiss.gitminer.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserInternerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sparseUserKeepsStoredColumns() throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"users-p\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"issues\":[{\"id\":\"users-i1\",\"title\":\"Bug\",\"state\":\"opened\"," +
+                                "\"author\":{\"id\":\"users-u1\",\"username\":\"ana\",\"name\":\"Ana\",\"avatar_url\":\"http://x/a.png\"}}]}"))
+                .andExpect(status().isCreated());
+
+        // Solo id y username: el nombre y el avatar guardados no se borran, el username sí se actualiza
+        mockMvc.perform(post("/gitminer/projects/users-p/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"issues\":[{\"id\":\"users-i2\",\"title\":\"Other\",\"state\":\"opened\"," +
+                                "\"author\":{\"id\":\"users-u1\",\"username\":\"ana2\"}}]}"))
+                .andExpect(status().isOk());
+
+        Map<String, Object> user = jdbcTemplate.queryForMap("SELECT username, name, avatar_url FROM gmuser WHERE id = 'users-u1'");
+        assertThat(user.get("USERNAME")).isEqualTo("ana2");
+        assertThat(user.get("NAME")).isEqualTo("Ana");
+        assertThat(user.get("AVATAR_URL")).isEqualTo("http://x/a.png");
+    }
+
+    @Test
+    void userWithoutIdIsRejected() throws Exception {
+        mockMvc.perform(post("/gitminer/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"users-noid\",\"name\":\"Project\",\"web_url\":\"http://x\"," +
+                                "\"issues\":[{\"id\":\"users-noid-i1\",\"title\":\"Bug\",\"state\":\"opened\"," +
+                                "\"author\":{\"username\":\"ana\"}}]}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project WHERE id = 'users-noid'", Long.class)).isZero();
+    }
+}